@@ -0,0 +1,69 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.support.RestClientAdapter;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Builds both todo client styles against the same base URL with the same instrumentation,
+ * so the only difference between them is the declarative proxy versus hand-written calls.
+ */
+public class BenchmarkClients implements AutoCloseable {
+
+    private final TodoClientInstrumentation instrumentation;
+    private final TodoClientOperations client;
+
+    public BenchmarkClients(String clientStyle, String baseUrl) {
+        TodoClientProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "app.todo-client.base-url", baseUrl,
+                "app.todo-client.pool.max-total", "512",
+                "app.todo-client.pool.max-per-route", "512")))
+                .bindOrCreate("app.todo-client", TodoClientProperties.class);
+
+        this.instrumentation = new TodoClientInstrumentation(new SimpleMeterRegistry(), ObservationRegistry.create(),
+                properties.pool());
+        this.client = switch (clientStyle) {
+            case TodoClientInstrumentation.DECLARATIVE -> declarative(properties);
+            case TodoClientInstrumentation.TRADITIONAL -> traditional(properties);
+            default -> throw new IllegalArgumentException("Unknown client style: " + clientStyle);
+        };
+    }
+
+    public TodoClientOperations client() {
+        return client;
+    }
+
+    private TodoClientOperations declarative(TodoClientProperties properties) {
+        RestClient restClient = instrumentation.instrument(RestClient.builder(), TodoClientInstrumentation.DECLARATIVE)
+                .baseUrl(properties.baseUrl())
+                .build();
+        TodoService todoService = HttpServiceProxyFactory.builderFor(RestClientAdapter.create(restClient))
+                .build()
+                .createClient(TodoService.class);
+        return new TodoClientOperations(todoService::getTodoById, todoService::getTodosByUserId);
+    }
+
+    private TodoClientOperations traditional(TodoClientProperties properties) {
+        var todoService = new TraditionalTodoService(RestClient.builder(), instrumentation, properties);
+        return new TodoClientOperations(todoService::getTodoById, todoService::getTodosByUserId);
+    }
+
+    @Override
+    public void close() throws Exception {
+        instrumentation.destroy();
+    }
+
+    public record TodoClientOperations(
+            LongFunction<Todo> getTodoById,
+            LongFunction<List<Todo>> getTodosByUserId
+    ) {
+    }
+}
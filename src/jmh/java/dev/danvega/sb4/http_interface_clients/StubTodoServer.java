@@ -0,0 +1,86 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process stand-in for the JSONPlaceholder todo API, so benchmarks measure client
+ * overhead rather than the network. {@code todosPerUser} controls the payload size of
+ * {@code /todos?userId=} responses.
+ */
+public class StubTodoServer implements AutoCloseable {
+
+    private static final int USERS = 10;
+
+    private final HttpServer server;
+    private final byte[] userTodos;
+    private final byte[] allTodos;
+
+    public StubTodoServer(int todosPerUser) throws IOException {
+        this.userTodos = todosJson(1, todosPerUser).getBytes(StandardCharsets.UTF_8);
+        this.allTodos = todosJson(1, todosPerUser * USERS).getBytes(StandardCharsets.UTF_8);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/todos", this::handle);
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery();
+        byte[] body;
+        int status = 200;
+
+        if ("POST".equals(exchange.getRequestMethod())) {
+            exchange.getRequestBody().readAllBytes();
+            body = todoJson(201, 1).getBytes(StandardCharsets.UTF_8);
+            status = 201;
+        } else if (path.equals("/todos") && query != null && query.startsWith("userId=")) {
+            body = userTodos;
+        } else if (path.equals("/todos")) {
+            body = allTodos;
+        } else {
+            exchange.getRequestBody().readAllBytes();
+            long id = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+            body = todoJson(id, 1).getBytes(StandardCharsets.UTF_8);
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String todosJson(long userId, int count) {
+        var json = new StringBuilder("[");
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append(todoJson(i, userId));
+        }
+        return json.append(']').toString();
+    }
+
+    private static String todoJson(long id, long userId) {
+        return "{\"userId\":" + userId + ",\"id\":" + id
+                + ",\"title\":\"delectus aut autem " + id + "\",\"completed\":" + (id % 2 == 0) + "}";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
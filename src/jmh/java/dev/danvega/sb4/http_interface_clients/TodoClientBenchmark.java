@@ -0,0 +1,65 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmark of a single call through the declarative {@code TodoService} proxy versus
+ * the hand-written {@code TraditionalTodoService}. Both hit the same in-process stub, so the
+ * difference between the two styles is the per-call client overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoClientBenchmark {
+
+    @Param({TodoClientInstrumentation.DECLARATIVE, TodoClientInstrumentation.TRADITIONAL})
+    private String clientStyle;
+
+    @Param({"1", "20", "200"})
+    private int todosPerUser;
+
+    private StubTodoServer server;
+    private BenchmarkClients clients;
+    private BenchmarkClients.TodoClientOperations client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new StubTodoServer(todosPerUser);
+        clients = new BenchmarkClients(clientStyle, server.baseUrl());
+        client = clients.client();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        clients.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Todo getTodoById() {
+        return client.getTodoById().apply(1L);
+    }
+
+    @Benchmark
+    public List<Todo> getTodosByUserId() {
+        return client.getTodosByUserId().apply(1L);
+    }
+}
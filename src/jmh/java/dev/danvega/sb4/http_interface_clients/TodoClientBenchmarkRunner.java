@@ -0,0 +1,33 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs {@link TodoClientBenchmark} at several concurrency levels with the GC profiler enabled,
+ * which reports allocation rate ({@code gc.alloc.rate.norm} is bytes per call).
+ * Results are written as JSON to {@code target/jmh/}.
+ */
+public class TodoClientBenchmarkRunner {
+
+    private static final int[] THREADS = {1, 8, 32};
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(Path.of("target/jmh"));
+        for (int threads : THREADS) {
+            var options = new OptionsBuilder()
+                    .include(TodoClientBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh/todo-clients-" + threads + "-threads.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import com.sun.management.ThreadMXBean;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Macro load driver: closed-loop workers hammer {@code getTodosByUserId} for both client styles
+ * at increasing concurrency and payload size, and print one CSV row per run with throughput,
+ * latency percentiles and process allocation rate.
+ *
+ * Run with {@code ./mvnw -Pbenchmark test-compile exec:java -Dbenchmark=dev.danvega.sb4.http_interface_clients.TodoClientLoadDriver}
+ */
+public class TodoClientLoadDriver {
+
+    private static final int[] CONCURRENCY = {1, 8, 32, 128};
+    private static final int[] TODOS_PER_USER = {1, 20, 200};
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("clientStyle,concurrency,todosPerUser,requests,errors,throughputPerSec,"
+                + "p50Micros,p99Micros,p999Micros,maxMicros,allocMbPerSec");
+
+        for (int todosPerUser : TODOS_PER_USER) {
+            try (var server = new StubTodoServer(todosPerUser)) {
+                for (String clientStyle : List.of(TodoClientInstrumentation.DECLARATIVE,
+                        TodoClientInstrumentation.TRADITIONAL)) {
+                    for (int concurrency : CONCURRENCY) {
+                        try (var clients = new BenchmarkClients(clientStyle, server.baseUrl())) {
+                            run(clients.client(), concurrency, WARMUP);
+                            Result result = run(clients.client(), concurrency, MEASUREMENT);
+                            System.out.println(result.toCsv(clientStyle, concurrency, todosPerUser));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Result run(BenchmarkClients.TodoClientOperations client, int concurrency, Duration duration)
+            throws Exception {
+        var threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var recorder = new Recorder(3);
+        var running = new AtomicBoolean(true);
+        List<Future<Long>> workers = new ArrayList<>();
+
+        long allocatedBefore = threadBean.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    long errors = 0;
+                    while (running.get()) {
+                        long callStart = System.nanoTime();
+                        try {
+                            client.getTodosByUserId().apply(1L);
+                            recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - callStart));
+                        } catch (RuntimeException ex) {
+                            errors++;
+                        }
+                    }
+                    return errors;
+                }));
+            }
+            Thread.sleep(duration.toMillis());
+            running.set(false);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threadBean.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+        long errors = 0;
+        for (Future<Long> worker : workers) {
+            errors += worker.get();
+        }
+        return new Result(recorder.getIntervalHistogram(), errors, elapsedNanos, allocated);
+    }
+
+    private record Result(Histogram histogram, long errors, long elapsedNanos, long allocatedBytes) {
+
+        String toCsv(String clientStyle, int concurrency, int todosPerUser) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            return String.join(",",
+                    clientStyle,
+                    String.valueOf(concurrency),
+                    String.valueOf(todosPerUser),
+                    String.valueOf(histogram.getTotalCount()),
+                    String.valueOf(errors),
+                    String.format("%.1f", histogram.getTotalCount() / seconds),
+                    String.valueOf(histogram.getValueAtPercentile(50)),
+                    String.valueOf(histogram.getValueAtPercentile(99)),
+                    String.valueOf(histogram.getValueAtPercentile(99.9)),
+                    String.valueOf(histogram.getMaxValue()),
+                    String.format("%.1f", allocatedBytes / seconds / (1024 * 1024)));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package dev.danvega.sb4.jms_client;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+
+import java.util.stream.Stream;
+
+/**
+ * Starts the embedded Artemis broker with Boot's JMS auto-configuration and {@link JmsConfig},
+ * but no other application beans, so benchmarks get the same connection factory settings and
+ * message converter the application would.
+ */
+final class BenchmarkBroker {
+
+    private BenchmarkBroker() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(BenchmarkJms.class, properties);
+    }
+
+    /**
+     * Starts with extra beans: {@code configuration} is expected to import {@link BenchmarkJms}.
+     */
+    static ConfigurableApplicationContext start(Class<?> configuration, String... properties) {
+        return new SpringApplicationBuilder(configuration)
+                .web(WebApplicationType.NONE)
+                .properties(Stream.concat(Stream.of(
+                        "spring.artemis.mode=embedded",
+                        "spring.artemis.embedded.queues=" + NotificationProducer.NOTIFICATION_QUEUE,
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn"), Stream.of(properties)).toArray(String[]::new))
+                .run();
+    }
+
+    /**
+     * Auto-configuration only, no component scanning. Deliberately not a
+     * {@code @SpringBootConfiguration} so tests never pick it up.
+     */
+    @EnableAutoConfiguration
+    @Import(JmsConfig.class)
+    static class BenchmarkJms {
+    }
+}
@@ -0,0 +1,121 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jms.core.JmsClient;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Synchronous send throughput for each embedded broker profile in {@code application.yml}.
+ * {@code default} is the application without a profile. The {@code info} and {@code alert}
+ * types show the per-type delivery mode: the {@code throughput} profile sends {@code info}
+ * non-persistent. Each trial gets a fresh journal directory, and a background consumer drains
+ * the queue so the journal does not grow with the backlog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationBrokerProfileBenchmark {
+
+    static final String[] PROFILES = {"default", "durable", "throughput", "volatile"};
+    private static final int MESSAGES_PER_INVOCATION = 100;
+
+    @Param({"default", "durable", "throughput", "volatile"})
+    private String profile;
+
+    @Param({"alert", "info"})
+    private String type;
+
+    private Path dataDirectory;
+    private ConfigurableApplicationContext context;
+    private NotificationProducer producer;
+    private Connection drainConnection;
+    private Thread drainer;
+    private volatile boolean draining;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, JMSException {
+        dataDirectory = Files.createTempDirectory("artemis-" + profile);
+        context = start(profile, dataDirectory);
+        producer = producer(context);
+        startDraining(context.getBean(JmsTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        draining = false;
+        drainer.join();
+        drainConnection.close();
+        producer.destroy();
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDirectory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_INVOCATION)
+    public void send() {
+        NotificationMessage notification = NotificationMessage.of("Benchmark message", type);
+        for (int i = 0; i < MESSAGES_PER_INVOCATION; i++) {
+            producer.sendNotification(notification);
+        }
+    }
+
+    static ConfigurableApplicationContext start(String profile, Path dataDirectory) {
+        String dataDirectoryProperty = "spring.artemis.embedded.data-directory=" + dataDirectory;
+        return "default".equals(profile)
+                ? BenchmarkBroker.start(dataDirectoryProperty)
+                : BenchmarkBroker.start(dataDirectoryProperty, "spring.profiles.active=" + profile);
+    }
+
+    static NotificationProducer producer(ConfigurableApplicationContext context) {
+        NotificationProperties properties = Binder.get(context.getEnvironment())
+                .bindOrCreate("app.jms", NotificationProperties.class);
+        return new NotificationProducer(context.getBean(JmsClient.class), context.getBean(JmsTemplate.class), properties,
+                context.getBean(MeterRegistry.class));
+    }
+
+    private void startDraining(JmsTemplate jmsTemplate) throws JMSException {
+        drainConnection = jmsTemplate.getConnectionFactory().createConnection();
+        drainConnection.start();
+        Session session = drainConnection.createSession(false, Session.DUPS_OK_ACKNOWLEDGE);
+        MessageConsumer consumer = session.createConsumer(session.createQueue(NotificationProducer.NOTIFICATION_QUEUE));
+        draining = true;
+        drainer = Thread.ofVirtual().name("benchmark-drainer").start(() -> {
+            try {
+                while (draining) {
+                    consumer.receive(100);
+                }
+            } catch (JMSException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+}
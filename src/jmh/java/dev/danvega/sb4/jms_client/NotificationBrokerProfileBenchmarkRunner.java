@@ -0,0 +1,83 @@
+package dev.danvega.sb4.jms_client;
+
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+/**
+ * Prints the durability side of each broker profile as CSV: the effective journal settings,
+ * the delivery mode of each notification type, and how many of the sent notifications are
+ * still on the queue after the broker restarts. A clean restart flushes the journal, so this
+ * shows what is persisted at all; what a crash loses on top depends on
+ * {@code journalSyncNonTransactional} and {@code journalDatasync}, which the CSV also lists.
+ * Then runs {@link NotificationBrokerProfileBenchmark} and writes the throughput results as
+ * JSON to {@code target/jmh/}.
+ */
+public class NotificationBrokerProfileBenchmarkRunner {
+
+    private static final int MESSAGES = 1000;
+    private static final String[] TYPES = {"alert", "info"};
+
+    public static void main(String[] args) throws Exception {
+        printDurability();
+
+        Files.createDirectories(Path.of("target/jmh"));
+        var options = new OptionsBuilder()
+                .include(NotificationBrokerProfileBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh/notification-broker-profiles.json")
+                .build();
+        new Runner(options).run();
+    }
+
+    private static void printDurability() throws Exception {
+        System.out.println("profile,journalType,persistence,syncTransactional,syncNonTransactional,datasync,type,persistentDelivery,sent,afterRestart");
+        for (String profile : NotificationBrokerProfileBenchmark.PROFILES) {
+            for (String type : TYPES) {
+                Path dataDirectory = Files.createTempDirectory("artemis-" + profile);
+                try {
+                    printDurability(profile, type, dataDirectory);
+                } finally {
+                    FileSystemUtils.deleteRecursively(dataDirectory);
+                }
+            }
+        }
+    }
+
+    private static void printDurability(String profile, String type, Path dataDirectory) {
+        Configuration journal;
+        boolean persistentDelivery;
+        try (ConfigurableApplicationContext context = NotificationBrokerProfileBenchmark.start(profile, dataDirectory)) {
+            journal = context.getBean(EmbeddedActiveMQ.class).getActiveMQServer().getConfiguration();
+            persistentDelivery = Binder.get(context.getEnvironment())
+                    .bindOrCreate("app.jms", NotificationProperties.class)
+                    .delivery().isPersistent(type);
+            NotificationProducer producer = NotificationBrokerProfileBenchmark.producer(context);
+            for (int i = 0; i < MESSAGES; i++) {
+                producer.sendNotification("Durability check " + i, type);
+            }
+            producer.destroy();
+        }
+
+        int afterRestart;
+        try (ConfigurableApplicationContext context = NotificationBrokerProfileBenchmark.start(profile, dataDirectory)) {
+            afterRestart = context.getBean(JmsTemplate.class).browse(NotificationProducer.NOTIFICATION_QUEUE,
+                    (session, browser) -> Collections.list(browser.getEnumeration()).size());
+        }
+
+        System.out.printf("%s,%s,%b,%b,%b,%b,%s,%b,%d,%d%n", profile, journal.getJournalType(),
+                journal.isPersistenceEnabled(), journal.isJournalSyncTransactional(),
+                journal.isJournalSyncNonTransactional(), journal.isJournalDatasync(),
+                type, persistentDelivery, MESSAGES, afterRestart);
+    }
+}
@@ -0,0 +1,224 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load driver: {@link NotificationProducer} sends through the embedded broker to
+ * {@link NotificationConsumer}, all in-process with the application's JMS configuration, while
+ * the driver sweeps payload size, producer and consumer concurrency, persistence and batching.
+ * Latency is measured from {@link NotificationMessage#timestamp()} to consumer pick-up, the same
+ * span as the {@code notification.latency} metric.
+ *
+ * Each run gets a fresh broker and journal. Producers send in a closed loop; when they outpace
+ * the consumers the {@code backlog} column grows and the latency includes the time spent
+ * queueing, which is the point to look for. Consumers do no simulated work and message groups
+ * are off, so every consumer can take every message. With {@code batch} on, producers use
+ * {@link NotificationProducer#sendBatch} and {@link BatchNotificationListener} consumes.
+ * The warmup's backlog is drained before measuring, so it neither queues ahead of measured
+ * messages nor shows up in their latencies.
+ *
+ * Prints one CSV row per run and writes the same rows to
+ * {@code target/jmh/notification-end-to-end.csv} for comparison across builds.
+ *
+ * Run with {@code ./mvnw -Pbenchmark test-compile exec:java -Dbenchmark=dev.danvega.sb4.jms_client.NotificationEndToEndLoadDriver}
+ */
+public class NotificationEndToEndLoadDriver {
+
+    private static final int[] PAYLOAD_BYTES = {100, 1024, 10240};
+    private static final int[] PRODUCERS = {1, 8};
+    private static final int[] CONSUMERS = {1, 8};
+    private static final boolean[] PERSISTENT = {true, false};
+    private static final boolean[] BATCH = {false, true};
+    private static final int BATCH_SIZE = 100;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(2);
+    private static final Path RESULTS = Path.of("target/jmh/notification-end-to-end.csv");
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(RESULTS.getParent());
+        try (PrintWriter results = new PrintWriter(Files.newBufferedWriter(RESULTS))) {
+            print(results, "payloadBytes,producers,consumers,persistent,batch,sent,consumed,sentPerSec,"
+                    + "consumedPerSec,backlog,p50Micros,p99Micros,p999Micros,maxMicros");
+            for (int payloadBytes : PAYLOAD_BYTES) {
+                for (int producers : PRODUCERS) {
+                    for (int consumers : CONSUMERS) {
+                        for (boolean persistent : PERSISTENT) {
+                            for (boolean batch : BATCH) {
+                                Run run = new Run(payloadBytes, producers, consumers, persistent, batch);
+                                print(results, run.execute().toCsv(run));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void print(PrintWriter results, String line) {
+        System.out.println(line);
+        results.println(line);
+        results.flush();
+    }
+
+    private record Run(int payloadBytes, int producers, int consumers, boolean persistent, boolean batch) {
+
+        Result execute() throws Exception {
+            Path dataDirectory = Files.createTempDirectory("artemis-e2e");
+            try (ConfigurableApplicationContext context = BenchmarkBroker.start(EndToEndJms.class, properties(dataDirectory))) {
+                NotificationProducer producer = context.getBean(NotificationProducer.class);
+                RecordingNotificationMetrics metrics = context.getBean(RecordingNotificationMetrics.class);
+                String payload = "x".repeat(payloadBytes);
+
+                measure(producer, metrics, payload, WARMUP);
+                awaitDrained(metrics);
+                return measure(producer, metrics, payload, MEASUREMENT);
+            } finally {
+                FileSystemUtils.deleteRecursively(dataDirectory);
+            }
+        }
+
+        private String[] properties(Path dataDirectory) {
+            return new String[]{
+                    "spring.artemis.embedded.persistent=true",
+                    "spring.artemis.embedded.data-directory=" + dataDirectory,
+                    "app.jms.delivery.persistent=" + persistent,
+                    "app.jms.consumer.processing-time=0ms",
+                    "app.jms.producer.batch-chunk-size=" + BATCH_SIZE,
+                    "spring.jms.listener.min-concurrency=" + consumers,
+                    "spring.jms.listener.max-concurrency=" + consumers,
+                    "app.jms.batch.enabled=" + batch,
+                    "app.jms.batch.consumers=" + consumers,
+                    "app.jms.batch.max-messages=" + BATCH_SIZE
+            };
+        }
+
+        /**
+         * Waits until the consumers have caught up with everything sent so far.
+         */
+        private static void awaitDrained(NotificationMetrics metrics) throws InterruptedException {
+            long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            long backlog;
+            while ((backlog = metrics.queueDepth()) > 0) {
+                if (System.nanoTime() - deadline > 0) {
+                    throw new IllegalStateException("Warmup backlog of " + backlog + " not drained within " + DRAIN_TIMEOUT);
+                }
+                Thread.sleep(100);
+            }
+        }
+
+        private Result measure(NotificationProducer producer, RecordingNotificationMetrics metrics, String payload,
+                               Duration duration) throws Exception {
+            var running = new AtomicBoolean(true);
+            var sent = new LongAdder();
+            List<Future<?>> workers = new ArrayList<>();
+
+            metrics.latencies.reset();
+            long start = System.nanoTime();
+            try (ExecutorService executor = Executors.newFixedThreadPool(producers)) {
+                for (int i = 0; i < producers; i++) {
+                    workers.add(executor.submit(() -> {
+                        while (running.get()) {
+                            if (batch) {
+                                List<NotificationMessage> notifications = new ArrayList<>(BATCH_SIZE);
+                                for (int n = 0; n < BATCH_SIZE; n++) {
+                                    notifications.add(NotificationMessage.of(payload, "benchmark"));
+                                }
+                                sent.add(producer.sendBatch(notifications).accepted());
+                            } else {
+                                producer.sendNotification(NotificationMessage.of(payload, "benchmark"));
+                                sent.increment();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                Thread.sleep(duration.toMillis());
+                running.set(false);
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return new Result(metrics.latencies.getIntervalHistogram(), sent.sum(), metrics.queueDepth(), elapsedNanos);
+        }
+    }
+
+    private record Result(Histogram latencies, long sent, long backlog, long elapsedNanos) {
+
+        String toCsv(Run run) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            return String.join(",",
+                    String.valueOf(run.payloadBytes()),
+                    String.valueOf(run.producers()),
+                    String.valueOf(run.consumers()),
+                    String.valueOf(run.persistent()),
+                    String.valueOf(run.batch()),
+                    String.valueOf(sent),
+                    String.valueOf(latencies.getTotalCount()),
+                    String.format("%.1f", sent / seconds),
+                    String.format("%.1f", latencies.getTotalCount() / seconds),
+                    String.valueOf(backlog),
+                    String.valueOf(latencies.getValueAtPercentile(50)),
+                    String.valueOf(latencies.getValueAtPercentile(99)),
+                    String.valueOf(latencies.getValueAtPercentile(99.9)),
+                    String.valueOf(latencies.getMaxValue()));
+        }
+    }
+
+    /**
+     * {@link NotificationMetrics} that also records each pick-up latency in full resolution,
+     * since the published timer only keeps p50 and p99.
+     */
+    static class RecordingNotificationMetrics extends NotificationMetrics {
+
+        final Recorder latencies = new Recorder(3);
+
+        RecordingNotificationMetrics(MeterRegistry meterRegistry, ObjectProvider<EmbeddedActiveMQ> embeddedBroker) {
+            super(meterRegistry, embeddedBroker);
+        }
+
+        @Override
+        public void received(NotificationMessage notification) {
+            super.received(notification);
+            long micros = ChronoUnit.MICROS.between(notification.timestamp(), LocalDateTime.now());
+            latencies.recordValue(Math.max(0, micros));
+        }
+    }
+
+    /**
+     * The producer and consumer side of the application on top of {@link BenchmarkBroker}.
+     */
+    @Import({BenchmarkBroker.BenchmarkJms.class, NotificationProducer.class, NotificationConsumer.class,
+            NotificationDeduplicator.class})
+    static class EndToEndJms {
+
+        @Bean
+        RecordingNotificationMetrics notificationMetrics(MeterRegistry meterRegistry,
+                                                         ObjectProvider<EmbeddedActiveMQ> embeddedBroker) {
+            return new RecordingNotificationMetrics(meterRegistry, embeddedBroker);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jms.core.JmsClient;
+import org.springframework.jms.core.JmsTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer throughput against the embedded broker: {@code sync} waits for the broker's
+ * acknowledgement on every send, {@code async} keeps up to {@code maxInFlight} sends
+ * outstanding and waits once for the whole batch. A background consumer drains the queue so
+ * the broker does not fill up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationProducerBenchmark {
+
+    private static final int MESSAGES_PER_INVOCATION = 1000;
+
+    @Param({"sync", "async"})
+    private String mode;
+
+    @Param({"100", "1000"})
+    private int maxInFlight;
+
+    private ConfigurableApplicationContext context;
+    private NotificationProducer producer;
+    private Connection drainConnection;
+    private Thread drainer;
+    private volatile boolean draining;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JMSException {
+        context = BenchmarkBroker.start("app.jms.producer.max-in-flight=" + maxInFlight);
+        JmsTemplate jmsTemplate = context.getBean(JmsTemplate.class);
+        NotificationProperties properties = Binder.get(context.getEnvironment())
+                .bindOrCreate("app.jms", NotificationProperties.class);
+        producer = new NotificationProducer(context.getBean(JmsClient.class), jmsTemplate, properties,
+                context.getBean(MeterRegistry.class));
+        startDraining(jmsTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        draining = false;
+        drainer.join();
+        drainConnection.close();
+        producer.destroy();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_INVOCATION)
+    public void send() {
+        NotificationMessage notification = NotificationMessage.of("Benchmark message", "benchmark");
+        if ("sync".equals(mode)) {
+            for (int i = 0; i < MESSAGES_PER_INVOCATION; i++) {
+                producer.sendNotification(notification);
+            }
+            return;
+        }
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[MESSAGES_PER_INVOCATION];
+        for (int i = 0; i < MESSAGES_PER_INVOCATION; i++) {
+            sends[i] = producer.sendNotificationAsync(notification);
+        }
+        CompletableFuture.allOf(sends).join();
+    }
+
+    private void startDraining(JmsTemplate jmsTemplate) throws JMSException {
+        drainConnection = jmsTemplate.getConnectionFactory().createConnection();
+        drainConnection.start();
+        Session session = drainConnection.createSession(false, Session.DUPS_OK_ACKNOWLEDGE);
+        MessageConsumer consumer = session.createConsumer(session.createQueue(NotificationProducer.NOTIFICATION_QUEUE));
+        draining = true;
+        drainer = Thread.ofVirtual().name("benchmark-drainer").start(() -> {
+            try {
+                while (draining) {
+                    consumer.receive(100);
+                }
+            } catch (JMSException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package dev.danvega.sb4.jms_client;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs {@link NotificationProducerBenchmark} and writes the results as JSON to {@code target/jmh/}.
+ */
+public class NotificationProducerBenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(Path.of("target/jmh"));
+        var options = new OptionsBuilder()
+                .include(NotificationProducerBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh/notification-producer.json")
+                .build();
+        new Runner(options).run();
+    }
+}
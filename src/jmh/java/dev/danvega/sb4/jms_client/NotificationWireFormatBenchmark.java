@@ -0,0 +1,125 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.ObjectMessage;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of one {@link NotificationMessage} with the converter the application
+ * uses today ({@code current}, whatever Boot configures on the {@link JmsTemplate}) versus
+ * {@link BinaryNotificationMessageConverter} ({@code binary}). Messages are created from a real
+ * Artemis session so the numbers include the JMS message implementation, not just the codec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationWireFormatBenchmark {
+
+    static final String CURRENT = "current";
+    static final String BINARY = "binary";
+
+    @Param({CURRENT, BINARY})
+    private String format;
+
+    private ConfigurableApplicationContext context;
+    private Connection connection;
+    private Session session;
+    private MessageConverter converter;
+    private NotificationMessage notification;
+    private Message encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JMSException {
+        context = BenchmarkBroker.start();
+        JmsTemplate jmsTemplate = context.getBean(JmsTemplate.class);
+        converter = converter(format, jmsTemplate.getMessageConverter());
+        connection = jmsTemplate.getConnectionFactory().createConnection();
+        session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        notification = sampleNotification();
+        encoded = converter.toMessage(notification, session);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws JMSException {
+        connection.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Message encode() throws JMSException {
+        return converter.toMessage(notification, session);
+    }
+
+    @Benchmark
+    public Object decode() throws JMSException {
+        if (encoded instanceof BytesMessage bytesMessage) {
+            // back to the start of the body, as a received message would be
+            bytesMessage.reset();
+        }
+        return converter.fromMessage(encoded);
+    }
+
+    static MessageConverter converter(String format, MessageConverter current) {
+        return switch (format) {
+            case CURRENT -> current;
+            case BINARY -> new BinaryNotificationMessageConverter(current);
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    static NotificationMessage sampleNotification() {
+        return NotificationMessage.of("Your order #10423 has shipped and will arrive on Thursday", "shipping");
+    }
+
+    /**
+     * Body size as the JMS API sees it: bytes for a {@link BytesMessage}, UTF-8 bytes of the
+     * text for a {@link TextMessage}, the serialized object for an {@link ObjectMessage}. Header
+     * and property overhead is the same for both formats apart from the single format property.
+     */
+    static long bodySize(Message message) throws JMSException, IOException {
+        if (message instanceof BytesMessage bytesMessage) {
+            bytesMessage.reset();
+            return bytesMessage.getBodyLength();
+        }
+        if (message instanceof TextMessage textMessage) {
+            return textMessage.getText().getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (message instanceof ObjectMessage objectMessage) {
+            var bytes = new ByteArrayOutputStream();
+            try (var out = new ObjectOutputStream(bytes)) {
+                out.writeObject(objectMessage.getObject());
+            }
+            return bytes.size();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,51 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.Connection;
+import jakarta.jms.Session;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Prints the body size of the sample notification in each format, then runs
+ * {@link NotificationWireFormatBenchmark} with the GC profiler, which reports allocation per
+ * encode and decode. Results are written as JSON to {@code target/jmh/}.
+ */
+public class NotificationWireFormatBenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        printMessageSizes();
+
+        Files.createDirectories(Path.of("target/jmh"));
+        var options = new OptionsBuilder()
+                .include(NotificationWireFormatBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh/notification-wire-format.json")
+                .build();
+        new Runner(options).run();
+    }
+
+    private static void printMessageSizes() throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkBroker.start()) {
+            JmsTemplate jmsTemplate = context.getBean(JmsTemplate.class);
+            try (Connection connection = jmsTemplate.getConnectionFactory().createConnection();
+                 Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)) {
+                System.out.println("format,messageType,bodyBytes");
+                for (String format : new String[] {NotificationWireFormatBenchmark.CURRENT, NotificationWireFormatBenchmark.BINARY}) {
+                    MessageConverter converter = NotificationWireFormatBenchmark.converter(format, jmsTemplate.getMessageConverter());
+                    var message = converter.toMessage(NotificationWireFormatBenchmark.sampleNotification(), session);
+                    System.out.printf("%s,%s,%d%n", format, message.getClass().getSimpleName(),
+                            NotificationWireFormatBenchmark.bodySize(message));
+                }
+            }
+        }
+    }
+}
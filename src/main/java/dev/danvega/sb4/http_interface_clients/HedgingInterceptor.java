@@ -0,0 +1,207 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.service.annotation.GetExchange;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedges idempotent {@code @GetExchange} calls to cut tail latency.
+ *
+ * If the first attempt has not answered within the hedge delay, an identical second attempt
+ * is sent and whichever succeeds first wins. The loser is interrupted; attempts run on virtual
+ * threads, where interrupting a blocking socket read closes the socket. Hedges draw from a
+ * token budget so they never add more than the configured fraction of extra load.
+ *
+ * The adaptive hedge delay follows every primary attempt, including the slow ones that lose to
+ * a hedge and get cancelled; leaving those out would pull the percentile down and hedge ever
+ * earlier.
+ */
+public class HedgingInterceptor implements MethodInterceptor, DisposableBean {
+
+    private static final String PRIMARY = "primary";
+    private static final String HEDGE = "hedge";
+    private static final int MIN_SAMPLES = 20;
+
+    private final TodoClientProperties.Hedging hedging;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HedgeBudget budget;
+    private final Map<Method, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    public HedgingInterceptor(TodoClientProperties.Hedging hedging, MeterRegistry meterRegistry) {
+        this.hedging = hedging;
+        this.meterRegistry = meterRegistry;
+        this.budget = new HedgeBudget(hedging.budget());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (!AnnotatedElementUtils.hasAnnotation(method, GetExchange.class)
+                || !(invocation instanceof ProxyMethodInvocation proxyInvocation)) {
+            return invocation.proceed();
+        }
+
+        counter("todo.client.hedge.requests", method).increment();
+        budget.deposit();
+
+        var outcome = new CompletableFuture<Result>();
+        var pending = new AtomicInteger(1);
+        Future<?> primary = launch(proxyInvocation, PRIMARY, outcome, pending);
+        Future<?> hedge = null;
+
+        try {
+            outcome.get(hedgeDelay(method).toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            if (!outcome.isDone() && budget.tryAcquire()) {
+                counter("todo.client.hedge.sent", method).increment();
+                pending.incrementAndGet();
+                hedge = launch(proxyInvocation, HEDGE, outcome, pending);
+            } else if (!outcome.isDone()) {
+                counter("todo.client.hedge.budget.exhausted", method).increment();
+            }
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        }
+
+        Result result;
+        try {
+            result = outcome.get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        }
+
+        if (hedge != null) {
+            (PRIMARY.equals(result.attempt()) ? hedge : primary).cancel(true);
+            meterRegistry.counter("todo.client.hedge.wins",
+                    "method", method.getName(), "winner", result.attempt()).increment();
+        }
+        return result.value();
+    }
+
+    private Future<?> launch(ProxyMethodInvocation invocation, String attempt,
+                             CompletableFuture<Result> outcome, AtomicInteger pending) {
+        MethodInvocation clone = invocation.invocableClone();
+        return executor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                Object value = clone.proceed();
+                outcome.complete(new Result(attempt, value));
+            } catch (Throwable ex) {
+                if (pending.decrementAndGet() == 0) {
+                    outcome.completeExceptionally(ex);
+                }
+            } finally {
+                if (PRIMARY.equals(attempt)) {
+                    // a cancelled primary took at least this long
+                    latencyWindow(invocation.getMethod()).record(System.nanoTime() - start);
+                }
+            }
+        });
+    }
+
+    Duration hedgeDelay(Method method) {
+        if (hedging.delay() != null) {
+            return hedging.delay();
+        }
+        long percentile = latencyWindow(method).percentile(hedging.percentile(), MIN_SAMPLES);
+        Duration adaptive = Duration.ofNanos(percentile);
+        return adaptive.compareTo(hedging.minDelay()) > 0 ? adaptive : hedging.minDelay();
+    }
+
+    LatencyWindow latencyWindow(Method method) {
+        return latencies.computeIfAbsent(method, m -> new LatencyWindow(512));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Counter counter(String name, Method method) {
+        return meterRegistry.counter(name, "method", method.getName());
+    }
+
+    private record Result(String attempt, Object value) {
+    }
+
+    /**
+     * Token bucket that earns a fraction of a token per request and spends one per hedge.
+     */
+    static class HedgeBudget {
+
+        private static final double MAX_TOKENS = 10;
+
+        private final double ratio;
+        private double tokens;
+
+        HedgeBudget(double ratio) {
+            this.ratio = ratio;
+        }
+
+        synchronized void deposit() {
+            tokens = Math.min(MAX_TOKENS, tokens + ratio);
+        }
+
+        synchronized boolean tryAcquire() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    /**
+     * Fixed-size ring buffer of recent primary attempt latencies in nanoseconds.
+     */
+    static class LatencyWindow {
+
+        private final long[] samples;
+        private int count;
+        private int next;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized long percentile(double percentile, int minSamples) {
+            if (count < minSamples) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return sorted[Math.max(0, Math.min(index, count - 1))];
+        }
+
+        synchronized int size() {
+            return count;
+        }
+    }
+}
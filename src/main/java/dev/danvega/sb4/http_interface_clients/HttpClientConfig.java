@@ -1,11 +1,74 @@
 package dev.danvega.sb4.http_interface_clients;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.client.support.RestClientHttpServiceGroupConfigurer;
+import org.springframework.web.service.registry.HttpServiceProxyRegistry;
 import org.springframework.web.service.registry.ImportHttpServices;
 
 @Configuration(proxyBeanMethods = false)
 @ImportHttpServices(TodoService.class)
+@EnableConfigurationProperties(TodoClientProperties.class)
 public class HttpClientConfig {
 
+    @Bean
+    TodoClientInstrumentation todoClientInstrumentation(MeterRegistry meterRegistry,
+                                                        ObjectProvider<ObservationRegistry> observationRegistry,
+                                                        TodoClientProperties properties) {
+        return new TodoClientInstrumentation(meterRegistry,
+                observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP), properties.pool());
+    }
 
-}
\ No newline at end of file
+    // Points every @HttpExchange proxy, including TodoService, at the configured base URL and instruments it
+    @Bean
+    RestClientHttpServiceGroupConfigurer todoServiceInstrumentation(TodoClientInstrumentation instrumentation,
+                                                                    TodoClientProperties properties) {
+        return groups -> groups.forEachClient((group, builder) ->
+                instrumentation.instrument(builder, TodoClientInstrumentation.DECLARATIVE)
+                        .baseUrl(properties.baseUrl()));
+    }
+
+    // Hedges idempotent @GetExchange calls; a bean so its attempt executor is shut down with the context
+    @Bean
+    @ConditionalOnProperty(prefix = "app.todo-client.hedging", name = "enabled", havingValue = "true")
+    HedgingInterceptor todoServiceHedgingInterceptor(TodoClientProperties properties, MeterRegistry meterRegistry) {
+        return new HedgingInterceptor(properties.hedging(), meterRegistry);
+    }
+
+    // Wraps the TodoService proxy so idempotent @GetExchange calls are hedged
+    @Bean
+    @ConditionalOnProperty(prefix = "app.todo-client.hedging", name = "enabled", havingValue = "true")
+    static BeanPostProcessor todoServiceHedging(ObjectProvider<HedgingInterceptor> hedgingInterceptor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof TodoService) || bean instanceof ReplicatedTodoService) {
+                    return bean;
+                }
+                var proxyFactory = new ProxyFactory(bean);
+                proxyFactory.addInterface(TodoService.class);
+                proxyFactory.addAdvice(hedgingInterceptor.getObject());
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+
+    // Serves TodoService reads from a local replica; refreshes bypass it through the raw proxy
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "app.todo-client.replica", name = "enabled", havingValue = "true")
+    ReplicatedTodoService replicatedTodoService(HttpServiceProxyRegistry proxyRegistry,
+                                                TodoClientProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicatedTodoService(proxyRegistry.getClient(TodoService.class), properties.replica(),
+                meterRegistry);
+    }
+
+}
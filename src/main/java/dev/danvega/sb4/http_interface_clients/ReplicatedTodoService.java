@@ -0,0 +1,258 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * {@link TodoService} that serves reads from a local replica of the whole todo dataset.
+ *
+ * The replica is a snapshot of {@code getAllTodos()} indexed by id and by userId. It is
+ * rebuilt in the background and swapped in atomically, so reads never wait on the upstream
+ * once the first snapshot is loaded. Writes go upstream first and are then applied to the
+ * replica (write-through). Writes that land while a refresh is fetching are replayed onto the
+ * fetched snapshot before it is swapped in, so an older snapshot never undoes them.
+ *
+ * With a snapshot file configured, the replica is persisted periodically and on shutdown.
+ * On startup the persisted snapshot is served immediately and revalidated by the first
+ * background refresh.
+ */
+public class ReplicatedTodoService implements TodoService, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicatedTodoService.class);
+
+    private final TodoService upstream;
+    private final Duration refreshInterval;
+    private final Duration persistInterval;
+    private final TodoSnapshotStore snapshotStore;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Object writeLock = new Object();
+    // Guarded by writeLock: writes kept for refreshes that started before them
+    private final List<Write> journal = new ArrayList<>();
+    private long writeSequence;
+    private int refreshesInFlight;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("todo-replica").factory());
+
+    public ReplicatedTodoService(TodoService upstream, TodoClientProperties.Replica replica,
+                                 MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.refreshInterval = replica.refreshInterval();
+        this.persistInterval = replica.persistInterval();
+        this.snapshotStore = replica.snapshotFile() != null ? new TodoSnapshotStore(replica.snapshotFile()) : null;
+
+        Gauge.builder("todo.replica.size", this, ReplicatedTodoService::size)
+                .description("Number of todos held in the local replica")
+                .register(meterRegistry);
+        Gauge.builder("todo.replica.age", this, ReplicatedTodoService::ageSeconds)
+                .description("Seconds since the replica was last refreshed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (snapshotStore != null) {
+            loadPersisted();
+            scheduler.scheduleWithFixedDelay(this::persist, persistInterval.toMillis(), persistInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Swaps in the persisted snapshot, if there is one. Returns whether the replica is now warm.
+     */
+    boolean loadPersisted() {
+        try {
+            var loaded = snapshotStore.load();
+            loaded.ifPresent(persisted -> {
+                synchronized (writeLock) {
+                    snapshot.compareAndSet(null, Snapshot.of(persisted.todos(), persisted.savedAt()));
+                }
+                logger.info("Todo replica warmed with {} todos persisted at {}",
+                        persisted.todos().size(), persisted.savedAt());
+            });
+            return loaded.isPresent();
+        } catch (IOException ex) {
+            logger.warn("Could not load persisted todo replica, starting cold", ex);
+            return false;
+        }
+    }
+
+    void persist() {
+        Snapshot current = snapshot.get();
+        if (snapshotStore == null || current == null) {
+            return;
+        }
+        try {
+            snapshotStore.save(current.all(), current.refreshedAt());
+        } catch (IOException ex) {
+            logger.warn("Could not persist todo replica", ex);
+        }
+    }
+
+    /**
+     * Loads a fresh snapshot from upstream, replays the writes made while it was loading and
+     * swaps it in.
+     */
+    public void refresh() {
+        long startedAt;
+        synchronized (writeLock) {
+            startedAt = writeSequence;
+            refreshesInFlight++;
+        }
+        try {
+            List<Todo> todos = upstream.getAllTodos();
+            synchronized (writeLock) {
+                Map<Long, Todo> byId = new LinkedHashMap<>();
+                todos.forEach(todo -> byId.put(todo.id(), todo));
+                for (Write write : journal) {
+                    if (write.sequence() > startedAt) {
+                        write.change().accept(byId);
+                    }
+                }
+                snapshot.set(Snapshot.of(byId.values(), Instant.now()));
+            }
+            logger.debug("Todo replica refreshed with {} todos", todos.size());
+        } finally {
+            synchronized (writeLock) {
+                if (--refreshesInFlight == 0) {
+                    journal.clear();
+                }
+            }
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            logger.warn("Todo replica refresh failed, keeping the current snapshot", ex);
+        }
+    }
+
+    @Override
+    public List<Todo> getAllTodos() {
+        Snapshot current = snapshot.get();
+        return current != null ? current.all() : upstream.getAllTodos();
+    }
+
+    @Override
+    public Todo getTodoById(Long id) {
+        Snapshot current = snapshot.get();
+        Todo todo = current != null ? current.byId().get(id) : null;
+        // Misses go upstream so unknown ids fail exactly as they would without the replica
+        return todo != null ? todo : upstream.getTodoById(id);
+    }
+
+    @Override
+    public List<Todo> getTodosByUserId(Long userId) {
+        Snapshot current = snapshot.get();
+        return current != null ? current.byUserId().getOrDefault(userId, List.of()) : upstream.getTodosByUserId(userId);
+    }
+
+    @Override
+    public Todo createTodo(Todo todo) {
+        Todo created = upstream.createTodo(todo);
+        apply(todos -> todos.put(created.id(), created));
+        return created;
+    }
+
+    @Override
+    public Todo updateTodo(Long id, Todo todo) {
+        Todo updated = upstream.updateTodo(id, todo);
+        apply(todos -> todos.put(id, updated));
+        return updated;
+    }
+
+    @Override
+    public void deleteTodo(Long id) {
+        upstream.deleteTodo(id);
+        apply(todos -> todos.remove(id));
+    }
+
+    private void apply(Consumer<Map<Long, Todo>> change) {
+        synchronized (writeLock) {
+            writeSequence++;
+            if (refreshesInFlight > 0) {
+                journal.add(new Write(writeSequence, change));
+            }
+            Snapshot current = snapshot.get();
+            if (current == null) {
+                return;
+            }
+            Map<Long, Todo> todos = new LinkedHashMap<>();
+            current.all().forEach(todo -> todos.put(todo.id(), todo));
+            change.accept(todos);
+            snapshot.set(Snapshot.of(todos.values(), current.refreshedAt()));
+        }
+    }
+
+    public boolean isLoaded() {
+        return snapshot.get() != null;
+    }
+
+    int size() {
+        Snapshot current = snapshot.get();
+        return current != null ? current.all().size() : 0;
+    }
+
+    private double ageSeconds() {
+        Snapshot current = snapshot.get();
+        return current != null ? Duration.between(current.refreshedAt(), Instant.now()).toSeconds() : Double.NaN;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdownNow();
+        // let an in-flight scheduled persist finish before the final one reuses its temp file
+        if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Todo replica scheduler did not stop in time, skipping final persist");
+            return;
+        }
+        persist();
+    }
+
+    private record Write(long sequence, Consumer<Map<Long, Todo>> change) {
+    }
+
+    /**
+     * Immutable, fully indexed view of the dataset at a point in time.
+     */
+    record Snapshot(List<Todo> all, Map<Long, Todo> byId, Map<Long, List<Todo>> byUserId, Instant refreshedAt) {
+
+        static Snapshot of(Collection<Todo> todos, Instant refreshedAt) {
+            Map<Long, Todo> byId = new LinkedHashMap<>();
+            for (Todo todo : todos) {
+                if (todo.id() != null) {
+                    byId.put(todo.id(), todo);
+                }
+            }
+            Map<Long, List<Todo>> byUserId = byId.values().stream()
+                    .filter(todo -> todo.userId() != null)
+                    .collect(Collectors.groupingBy(Todo::userId, LinkedHashMap::new,
+                            Collectors.collectingAndThen(Collectors.toList(), List::copyOf)));
+            return new Snapshot(List.copyOf(byId.values()), Map.copyOf(byId),
+                    Map.copyOf(byUserId), refreshedAt);
+        }
+    }
+}
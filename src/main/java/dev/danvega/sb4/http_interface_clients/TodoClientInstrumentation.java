@@ -0,0 +1,132 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Applies the same instrumentation to both todo clients so they can be compared side by side.
+ *
+ * Every exchange is recorded as an {@code http.client.requests} timer tagged with method,
+ * URI template, status and a {@code client.style} tag. Each style gets its own pooled
+ * Apache HttpClient whose occupancy and lease wait time are published to Micrometer.
+ */
+public class TodoClientInstrumentation implements DisposableBean {
+
+    public static final String DECLARATIVE = "declarative";
+    public static final String TRADITIONAL = "traditional";
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final TodoClientProperties.Pool pool;
+    private final Map<String, CloseableHttpClient> httpClients = new ConcurrentHashMap<>();
+
+    public TodoClientInstrumentation(MeterRegistry meterRegistry, ObservationRegistry observationRegistry,
+                                     TodoClientProperties.Pool pool) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.pool = pool;
+    }
+
+    public RestClient.Builder instrument(RestClient.Builder builder, String clientStyle) {
+        CloseableHttpClient httpClient = httpClients.computeIfAbsent(clientStyle, this::createHttpClient);
+        return builder
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+                .observationRegistry(observationRegistry)
+                .observationConvention(new TodoClientObservationConvention(clientStyle));
+    }
+
+    private CloseableHttpClient createHttpClient(String clientStyle) {
+        Timer leaseWait = Timer.builder("http.client.pool.wait")
+                .description("Time spent waiting to lease a pooled connection")
+                .tag("client.style", clientStyle)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        var connectionManager = new TimedConnectionManager(leaseWait);
+        connectionManager.setMaxTotal(pool.maxTotal());
+        connectionManager.setDefaultMaxPerRoute(pool.maxPerRoute());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "todo-" + clientStyle)
+                .bindTo(meterRegistry);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .build();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (CloseableHttpClient httpClient : httpClients.values()) {
+            httpClient.close();
+        }
+    }
+
+    static class TodoClientObservationConvention extends DefaultClientRequestObservationConvention {
+
+        private final String clientStyle;
+
+        TodoClientObservationConvention(String clientStyle) {
+            this.clientStyle = clientStyle;
+        }
+
+        @Override
+        public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+            return super.getLowCardinalityKeyValues(context).and("client.style", clientStyle);
+        }
+    }
+
+    /**
+     * Pooling connection manager that times how long callers wait for a connection lease.
+     */
+    static class TimedConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private final Timer leaseWait;
+
+        TimedConnectionManager(Timer leaseWait) {
+            this.leaseWait = leaseWait;
+        }
+
+        @Override
+        public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+            LeaseRequest lease = super.lease(id, route, requestTimeout, state);
+            return new LeaseRequest() {
+                @Override
+                public ConnectionEndpoint get(Timeout timeout)
+                        throws InterruptedException, ExecutionException, TimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        return lease.get(timeout);
+                    } finally {
+                        leaseWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return lease.cancel();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings shared by the declarative and the traditional todo clients.
+ */
+@ConfigurationProperties("app.todo-client")
+public record TodoClientProperties(
+        @DefaultValue("https://jsonplaceholder.typicode.com") String baseUrl,
+        @DefaultValue Pool pool,
+        @DefaultValue Hedging hedging,
+        @DefaultValue Replica replica
+) {
+
+    /**
+     * Connection pool limits, applied to each client separately.
+     */
+    public record Pool(
+            @DefaultValue("50") int maxTotal,
+            @DefaultValue("20") int maxPerRoute
+    ) {
+    }
+
+    /**
+     * Opt-in hedging of idempotent {@code @GetExchange} calls. When {@code delay} is not set the
+     * hedge is sent once the first attempt exceeds the observed {@code percentile} latency.
+     * {@code budget} caps hedges as a fraction of hedgeable requests.
+     */
+    public record Hedging(
+            @DefaultValue("false") boolean enabled,
+            Duration delay,
+            @DefaultValue("0.95") double percentile,
+            @DefaultValue("20ms") Duration minDelay,
+            @DefaultValue("0.1") double budget
+    ) {
+    }
+
+    /**
+     * Optional in-memory replica of the whole todo dataset, refreshed in the background.
+     * When {@code snapshotFile} is set the replica is persisted there every
+     * {@code persistInterval} and on shutdown, and loaded from it on startup.
+     */
+    public record Replica(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("5m") Duration refreshInterval,
+            Path snapshotFile,
+            @DefaultValue("1m") Duration persistInterval
+    ) {
+    }
+}
@@ -6,7 +6,7 @@ import org.springframework.web.service.annotation.*;
 
 import java.util.List;
 
-@HttpExchange(url = "https://jsonplaceholder.typicode.com", accept = "application/json")
+@HttpExchange(accept = "application/json")
 public interface TodoService {
 
     @GetExchange("/todos")
@@ -0,0 +1,158 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persists todo snapshots to a compact binary file and maps them back into memory on startup.
+ *
+ * Layout: magic, version, saved-at epoch millis and a count, followed by one record per todo:
+ * a flags byte marking which fields are present, the id and userId as longs and the title as
+ * length-prefixed UTF-8. Files are written to a temporary sibling and moved into place atomically.
+ */
+public class TodoSnapshotStore {
+
+    private static final int MAGIC = 0x544F444F; // "TODO"
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + 1 + Long.BYTES + Integer.BYTES;
+    private static final int MIN_RECORD_BYTES = 1 + 2 * Long.BYTES;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_USER_ID = 1 << 1;
+    private static final int HAS_TITLE = 1 << 2;
+    private static final int HAS_COMPLETED = 1 << 3;
+    private static final int COMPLETED = 1 << 4;
+
+    private final Path file;
+
+    public TodoSnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    public void save(Collection<Todo> todos, Instant savedAt) throws IOException {
+        List<byte[]> titles = new ArrayList<>(todos.size());
+        int size = HEADER_BYTES;
+        for (Todo todo : todos) {
+            byte[] title = todo.title() != null ? todo.title().getBytes(StandardCharsets.UTF_8) : null;
+            titles.add(title);
+            size += 1 + 2 * Long.BYTES + (title != null ? Integer.BYTES + title.length : 0);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+                .putInt(MAGIC)
+                .put(VERSION)
+                .putLong(savedAt.toEpochMilli())
+                .putInt(todos.size());
+        int index = 0;
+        for (Todo todo : todos) {
+            byte[] title = titles.get(index++);
+            buffer.put(flags(todo))
+                    .putLong(todo.id() != null ? todo.id() : 0)
+                    .putLong(todo.userId() != null ? todo.userId() : 0);
+            if (title != null) {
+                buffer.putInt(title.length).put(title);
+            }
+        }
+        buffer.flip();
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the snapshot file into memory and decodes it, or returns empty if there is no
+     * usable file.
+     */
+    public Optional<Loaded> load() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                return Optional.empty();
+            }
+            Instant savedAt = Instant.ofEpochMilli(buffer.getLong());
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / MIN_RECORD_BYTES) {
+                throw new IOException("Corrupt todo snapshot: " + file + " claims " + count + " todos in "
+                        + buffer.remaining() + " bytes");
+            }
+            List<Todo> todos = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                todos.add(readTodo(buffer));
+            }
+            return Optional.of(new Loaded(todos, savedAt));
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new IOException("Corrupt todo snapshot: " + file, ex);
+        }
+    }
+
+    private static Todo readTodo(ByteBuffer buffer) {
+        int flags = buffer.get();
+        long id = buffer.getLong();
+        long userId = buffer.getLong();
+        String title = null;
+        if ((flags & HAS_TITLE) != 0) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalArgumentException("Title of " + length + " bytes exceeds the snapshot");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            title = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new Todo(
+                (flags & HAS_ID) != 0 ? id : null,
+                (flags & HAS_USER_ID) != 0 ? userId : null,
+                title,
+                (flags & HAS_COMPLETED) != 0 ? (flags & COMPLETED) != 0 : null);
+    }
+
+    private static byte flags(Todo todo) {
+        int flags = 0;
+        if (todo.id() != null) {
+            flags |= HAS_ID;
+        }
+        if (todo.userId() != null) {
+            flags |= HAS_USER_ID;
+        }
+        if (todo.title() != null) {
+            flags |= HAS_TITLE;
+        }
+        if (todo.completed() != null) {
+            flags |= HAS_COMPLETED;
+            if (todo.completed()) {
+                flags |= COMPLETED;
+            }
+        }
+        return (byte) flags;
+    }
+
+    public record Loaded(List<Todo> todos, Instant savedAt) {
+    }
+}
@@ -12,9 +12,10 @@ public class TraditionalTodoService {
 
     private final RestClient restClient;
 
-    public TraditionalTodoService(RestClient.Builder builder) {
-        this.restClient = builder
-                .baseUrl("https://jsonplaceholder.typicode.com")
+    public TraditionalTodoService(RestClient.Builder builder, TodoClientInstrumentation instrumentation,
+                                  TodoClientProperties properties) {
+        this.restClient = instrumentation.instrument(builder, TodoClientInstrumentation.TRADITIONAL)
+                .baseUrl(properties.baseUrl())
                 .build();
     }
 
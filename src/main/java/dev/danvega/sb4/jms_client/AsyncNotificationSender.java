@@ -0,0 +1,130 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.CompletionListener;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sends notifications with a JMS 2.0 {@link CompletionListener}, so the caller gets a
+ * {@link CompletableFuture} back as soon as the message is handed to the client, and the
+ * future completes when the broker acknowledges it.
+ *
+ * At most {@code maxInFlight} messages may be unacknowledged at once. Further sends fail at once
+ * with a {@link RejectedExecutionException} rather than wait for a slot, which keeps a slow broker
+ * from turning into unbounded client-side buffering or into request threads parked on the send.
+ *
+ * One session is shared by all callers; JMS sessions are single-threaded, so sends are
+ * serialized on it, which only covers handing the message to the client, not the round trip.
+ * Futures complete on the client's callback thread, so dependent stages should not block.
+ */
+class AsyncNotificationSender implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncNotificationSender.class);
+
+    private final ConnectionFactory connectionFactory;
+    private final MessageConverter messageConverter;
+    private final String destination;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private Connection connection;
+    private Session session;
+    private MessageProducer producer;
+
+    AsyncNotificationSender(ConnectionFactory connectionFactory, MessageConverter messageConverter, String destination,
+                            int maxInFlight) {
+        this.connectionFactory = connectionFactory;
+        this.messageConverter = messageConverter;
+        this.destination = destination;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * @param deliveryMode {@link jakarta.jms.DeliveryMode#PERSISTENT} or {@code NON_PERSISTENT}
+     * @param groupId JMS message group, or {@code null} for none
+     */
+    CompletableFuture<NotificationMessage> send(NotificationMessage notification, int deliveryMode, String groupId) {
+        CompletableFuture<NotificationMessage> future = new CompletableFuture<>();
+        if (!inFlight.tryAcquire()) {
+            future.completeExceptionally(new RejectedExecutionException(
+                    "No in-flight slot for notification " + notification.id() + ": " + maxInFlight + " sends unacknowledged"));
+            return future;
+        }
+
+        try {
+            synchronized (this) {
+                MessageProducer messageProducer = producer();
+                Message outgoing = messageConverter.toMessage(notification, session);
+                if (groupId != null) {
+                    outgoing.setStringProperty(NotificationProducer.GROUP_ID_PROPERTY, groupId);
+                }
+                messageProducer.setDeliveryMode(deliveryMode);
+                messageProducer.send(outgoing, new CompletionListener() {
+                    @Override
+                    public void onCompletion(Message message) {
+                        inFlight.release();
+                        future.complete(notification);
+                    }
+
+                    @Override
+                    public void onException(Message message, Exception exception) {
+                        inFlight.release();
+                        future.completeExceptionally(exception);
+                    }
+                });
+            }
+        } catch (JMSException | RuntimeException ex) {
+            inFlight.release();
+            future.completeExceptionally(ex);
+            if (ex instanceof JMSException) {
+                // start over with a fresh connection on the next send
+                close();
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Number of sends currently waiting for a broker acknowledgement.
+     */
+    int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private MessageProducer producer() throws JMSException {
+        if (producer == null) {
+            connection = connectionFactory.createConnection();
+            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            producer = session.createProducer(session.createQueue(destination));
+        }
+        return producer;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection != null) {
+            try {
+                if (session != null) {
+                    session.close();
+                }
+                connection.close();
+            } catch (JMSException ex) {
+                logger.warn("Could not close async notification connection", ex);
+            }
+        }
+        connection = null;
+        session = null;
+        producer = null;
+    }
+}
@@ -0,0 +1,235 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumes {@code notification-queue} in batches instead of one message per transaction.
+ *
+ * Each consumer loop blocks for the first message, then drains until it has
+ * {@code maxMessages} messages or {@code maxWait} has passed. The batch is handed to
+ * {@link NotificationConsumer#processBatch} and acknowledged with a single commit; if
+ * handling fails the whole batch is rolled back and redelivered. Once a message of a failing
+ * batch has been delivered {@code maxDeliveries} times, the batch is split and its messages are
+ * handled one by one, so only the ones that still fail go to {@code deadLetterQueue}. Every
+ * message of a rolled back batch, and every dead-lettered message, counts as failed in
+ * {@link NotificationMetrics}.
+ *
+ * When the broker connection breaks, a consumer loop backs off and starts over with a new
+ * session, and a new connection if the old one can no longer create sessions.
+ */
+public class BatchNotificationListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchNotificationListener.class);
+    private static final long IDLE_RECEIVE_TIMEOUT_MILLIS = 1000;
+    private static final long INITIAL_BACKOFF_MILLIS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final String DELIVERY_COUNT = "JMSXDeliveryCount";
+
+    private final ConnectionFactory connectionFactory;
+    private final MessageConverter messageConverter;
+    private final NotificationConsumer notificationConsumer;
+    private final NotificationMetrics metrics;
+    private final NotificationProperties.Batch batch;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Object connectionLock = new Object();
+    private volatile boolean running;
+    private volatile Connection connection;
+
+    public BatchNotificationListener(ConnectionFactory connectionFactory, MessageConverter messageConverter,
+                                     NotificationConsumer notificationConsumer, NotificationMetrics metrics,
+                                     NotificationProperties.Batch batch) {
+        this.connectionFactory = connectionFactory;
+        this.messageConverter = messageConverter;
+        this.notificationConsumer = notificationConsumer;
+        this.metrics = metrics;
+        this.batch = batch;
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            connection = connectionFactory.createConnection();
+            connection.start();
+        } catch (JMSException ex) {
+            throw new IllegalStateException("Could not start batch notification listener", ex);
+        }
+        running = true;
+        for (int i = 0; i < batch.consumers(); i++) {
+            workers.add(Thread.ofVirtual().name("notification-batch-", i).start(this::consume));
+        }
+        logger.info("Batch notification listener started with {} consumers (max {} messages / {} ms)",
+                batch.consumers(), batch.maxMessages(), batch.maxWait().toMillis());
+    }
+
+    private void consume() {
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        while (running) {
+            try (Session session = createSession();
+                 MessageConsumer consumer = session.createConsumer(session.createQueue(NotificationProducer.NOTIFICATION_QUEUE));
+                 MessageProducer deadLetters = session.createProducer(session.createQueue(batch.deadLetterQueue()))) {
+                backoffMillis = INITIAL_BACKOFF_MILLIS;
+                while (running) {
+                    consumeBatch(session, consumer, deadLetters);
+                }
+            } catch (JMSException ex) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Batch notification consumer failed, starting over in {} ms", backoffMillis, ex);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMillis = Math.min(2 * backoffMillis, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Receives, handles and commits or rolls back one batch.
+     */
+    void consumeBatch(Session session, MessageConsumer consumer, MessageProducer deadLetters) throws JMSException {
+        List<Message> messages = drain(consumer);
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            List<NotificationMessage> notifications = new ArrayList<>(messages.size());
+            for (Message message : messages) {
+                notifications.add((NotificationMessage) messageConverter.fromMessage(message));
+            }
+            notificationConsumer.processBatch(notifications);
+        } catch (RuntimeException ex) {
+            int deliveries = deliveryCount(messages);
+            if (deliveries < batch.maxDeliveries()) {
+                logger.error("Notification batch failed, rolling back", ex);
+                messages.forEach(message -> metrics.failed(notification(message)));
+                session.rollback();
+                return;
+            }
+            logger.warn("Notification batch of {} failed {} times, handling its messages one by one",
+                    messages.size(), deliveries, ex);
+            processOneByOne(messages, deadLetters);
+        }
+        session.commit();
+    }
+
+    private void processOneByOne(List<Message> messages, MessageProducer deadLetters) throws JMSException {
+        for (Message message : messages) {
+            try {
+                notificationConsumer.processBatch(List.of((NotificationMessage) messageConverter.fromMessage(message)));
+            } catch (RuntimeException ex) {
+                logger.error("Moving notification {} to {}", message.getJMSMessageID(), batch.deadLetterQueue(), ex);
+                metrics.failed(notification(message));
+                deadLetters.send(message);
+            }
+        }
+    }
+
+    /**
+     * The notification in the message, or {@code null} if it cannot be converted.
+     */
+    private NotificationMessage notification(Message message) {
+        try {
+            return messageConverter.fromMessage(message) instanceof NotificationMessage notification ? notification : null;
+        } catch (JMSException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static int deliveryCount(List<Message> messages) throws JMSException {
+        int deliveries = 1;
+        for (Message message : messages) {
+            if (message.propertyExists(DELIVERY_COUNT)) {
+                deliveries = Math.max(deliveries, message.getIntProperty(DELIVERY_COUNT));
+            }
+        }
+        return deliveries;
+    }
+
+    private List<Message> drain(MessageConsumer consumer) throws JMSException {
+        List<Message> messages = new ArrayList<>(batch.maxMessages());
+        Message message = consumer.receive(IDLE_RECEIVE_TIMEOUT_MILLIS);
+        long deadline = System.nanoTime() + batch.maxWait().toNanos();
+        while (message != null) {
+            messages.add(message);
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (messages.size() >= batch.maxMessages() || remainingMillis <= 0) {
+                break;
+            }
+            message = consumer.receive(remainingMillis);
+        }
+        return messages;
+    }
+
+    /**
+     * Creates a transacted session, replacing the shared connection first if it is the one that
+     * failed to create it.
+     */
+    private Session createSession() throws JMSException {
+        Connection current = connection;
+        try {
+            return current.createSession(true, Session.SESSION_TRANSACTED);
+        } catch (JMSException ex) {
+            reconnect(current);
+            throw ex;
+        }
+    }
+
+    private void reconnect(Connection failed) throws JMSException {
+        synchronized (connectionLock) {
+            if (!running || connection != failed) {
+                return;
+            }
+            try {
+                failed.close();
+            } catch (JMSException ex) {
+                logger.debug("Could not close failed batch listener connection", ex);
+            }
+            Connection replacement = connectionFactory.createConnection();
+            replacement.start();
+            connection = replacement;
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join(2 * IDLE_RECEIVE_TIMEOUT_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+        synchronized (connectionLock) {
+            try {
+                connection.close();
+            } catch (JMSException ex) {
+                logger.warn("Could not close batch listener connection", ex);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.danvega.sb4.jms_client;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk send: totals plus one entry per submitted notification, in request order.
+ */
+public record BatchSendResult(
+        int accepted,
+        int failed,
+        List<ItemResult> items
+) {
+
+    public static BatchSendResult of(List<ItemResult> items) {
+        int accepted = (int) items.stream().filter(ItemResult::isAccepted).count();
+        return new BatchSendResult(accepted, items.size() - accepted, items);
+    }
+
+    public record ItemResult(int index, String id, String status, String error) {
+
+        static final String ACCEPTED = "ACCEPTED";
+        static final String FAILED = "FAILED";
+
+        static ItemResult accepted(int index, String id) {
+            return new ItemResult(index, id, ACCEPTED, null);
+        }
+
+        static ItemResult failed(int index, String id, String error) {
+            return new ItemResult(index, id, FAILED, error);
+        }
+
+        boolean isAccepted() {
+            return ACCEPTED.equals(status);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+
+/**
+ * Writes {@link NotificationMessage} as a compact binary {@link BytesMessage} and hands every
+ * other payload to the converter it wraps. Reading is format-aware: binary notifications are
+ * recognised by the {@value #FORMAT_PROPERTY} property, anything else goes to the delegate, so
+ * consumers can read both formats while producers switch over.
+ *
+ * <p>Layout, big-endian:
+ * <pre>
+ * byte     format version: {@value #VERSION}, or {@value #DEFLATED_VERSION} when the message text is deflated
+ * byte     flags: bit 0 id is a UUID, bit 1 timestamp present
+ * id       UUID as two longs, or a string when the id is not a canonical UUID
+ * long     timestamp epoch second (UTC), if present
+ * int      timestamp nano of second, if present
+ * string   message
+ * string   type
+ * </pre>
+ * Strings are written as a varint of the UTF-8 length plus one (0 meaning {@code null})
+ * followed by the bytes.
+ *
+ * <p>With a {@link NotificationCompressor}, text at or above its threshold is written deflated
+ * in place of the UTF-8 bytes, under {@link #DEFLATED_VERSION} so that readers without
+ * compression support reject it rather than hand out the deflated bytes as text, and the
+ * message carries {@value #COMPRESSION_PROPERTY}; such notifications are written in this format
+ * even when the converter otherwise delegates. Inflated text is capped at
+ * {@link NotificationCompressor#MAX_TEXT_BYTES}.
+ *
+ * <p>Fields are only ever appended. Readers ignore trailing bytes they do not know about and
+ * default fields missing from shorter, older payloads. {@link #VERSION} changes only for an
+ * incompatible layout, which older readers reject instead of misreading.
+ */
+public class BinaryNotificationMessageConverter implements MessageConverter {
+
+    static final String FORMAT_PROPERTY = "notificationFormat";
+    static final String FORMAT = "binary";
+    static final String COMPRESSION_PROPERTY = "notificationCompression";
+    static final byte VERSION = 1;
+    static final byte DEFLATED_VERSION = 2;
+
+    private static final int FLAG_UUID_ID = 1;
+    private static final int FLAG_TIMESTAMP = 1 << 1;
+
+    private final MessageConverter delegate;
+    private final boolean binary;
+    private final NotificationCompressor compressor;
+
+    public BinaryNotificationMessageConverter(MessageConverter delegate) {
+        this(delegate, true, null);
+    }
+
+    /**
+     * @param binary whether to write every notification in this format, or only compressed ones
+     * @param compressor compresses large notification text, or {@code null} for none
+     */
+    BinaryNotificationMessageConverter(MessageConverter delegate, boolean binary, NotificationCompressor compressor) {
+        this.delegate = delegate;
+        this.binary = binary;
+        this.compressor = compressor;
+    }
+
+    @Override
+    public Message toMessage(Object object, Session session) throws JMSException, MessageConversionException {
+        if (!(object instanceof NotificationMessage notification)) {
+            return delegate.toMessage(object, session);
+        }
+        byte[] text = utf8(notification.message());
+        byte[] compressed = compressor != null ? compressor.compress(text) : null;
+        if (compressed == null && !binary) {
+            return delegate.toMessage(object, session);
+        }
+        BytesMessage message = session.createBytesMessage();
+        message.writeBytes(compressed != null
+                ? encode(notification, compressed, DEFLATED_VERSION)
+                : encode(notification, text, VERSION));
+        message.setStringProperty(FORMAT_PROPERTY, FORMAT);
+        if (compressed != null) {
+            message.setStringProperty(COMPRESSION_PROPERTY, NotificationCompressor.ALGORITHM);
+        }
+        return message;
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws JMSException, MessageConversionException {
+        if (message instanceof BytesMessage bytesMessage && FORMAT.equals(message.getStringProperty(FORMAT_PROPERTY))) {
+            byte[] payload = new byte[(int) bytesMessage.getBodyLength()];
+            bytesMessage.readBytes(payload);
+            String compression = message.getStringProperty(COMPRESSION_PROPERTY);
+            if (compression != null && !NotificationCompressor.ALGORITHM.equals(compression)) {
+                throw new MessageConversionException("Unsupported notification compression " + compression);
+            }
+            return decode(payload, compression != null);
+        }
+        return delegate.fromMessage(message);
+    }
+
+    static byte[] encode(NotificationMessage notification) {
+        return encode(notification, utf8(notification.message()), VERSION);
+    }
+
+    /**
+     * Encodes the notification with {@code text} in place of its message, which is how the
+     * compressed text gets in.
+     */
+    private static byte[] encode(NotificationMessage notification, byte[] text, byte version) {
+        UUID uuid = asUuid(notification.id());
+        byte[] id = uuid == null ? utf8(notification.id()) : null;
+        byte[] type = utf8(notification.type());
+
+        int flags = (uuid != null ? FLAG_UUID_ID : 0) | (notification.timestamp() != null ? FLAG_TIMESTAMP : 0);
+        int size = 2
+                + (uuid != null ? 16 : sizeOf(id))
+                + (notification.timestamp() != null ? 12 : 0)
+                + sizeOf(text)
+                + sizeOf(type);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(version);
+        buffer.put((byte) flags);
+        if (uuid != null) {
+            buffer.putLong(uuid.getMostSignificantBits());
+            buffer.putLong(uuid.getLeastSignificantBits());
+        } else {
+            putString(buffer, id);
+        }
+        if (notification.timestamp() != null) {
+            buffer.putLong(notification.timestamp().toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(notification.timestamp().getNano());
+        }
+        putString(buffer, text);
+        putString(buffer, type);
+        return buffer.array();
+    }
+
+    static NotificationMessage decode(byte[] payload) {
+        return decode(payload, false);
+    }
+
+    private static NotificationMessage decode(byte[] payload, boolean compressed) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            byte version = buffer.get();
+            if (version != VERSION && version != DEFLATED_VERSION) {
+                throw new MessageConversionException("Unsupported notification format version " + version);
+            }
+            // version 1 payloads flagged by the compression property predate DEFLATED_VERSION
+            boolean deflated = version == DEFLATED_VERSION || compressed;
+            int flags = buffer.get();
+            String id = (flags & FLAG_UUID_ID) != 0
+                    ? new UUID(buffer.getLong(), buffer.getLong()).toString()
+                    : getString(buffer);
+            LocalDateTime timestamp = (flags & FLAG_TIMESTAMP) != 0
+                    ? LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC)
+                    : null;
+            String message = null;
+            if (buffer.hasRemaining()) {
+                message = deflated ? decompress(getBytes(buffer)) : getString(buffer);
+            }
+            String type = buffer.hasRemaining() ? getString(buffer) : null;
+            return new NotificationMessage(id, message, type, timestamp);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            throw new MessageConversionException("Malformed binary notification of " + payload.length + " bytes", ex);
+        }
+    }
+
+    private static String decompress(byte[] compressed) {
+        if (compressed == null) {
+            return null;
+        }
+        try {
+            return NotificationCompressor.decompress(compressed);
+        } catch (DataFormatException ex) {
+            throw new MessageConversionException("Malformed compressed notification text", ex);
+        }
+    }
+
+    private static UUID asUuid(String id) {
+        if (id == null || id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            // only canonical lower-case ids survive the round trip through two longs
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] value) {
+        int length = value == null ? 0 : value.length + 1;
+        int varintSize = 1;
+        while ((length >>>= 7) != 0) {
+            varintSize++;
+        }
+        return varintSize + (value == null ? 0 : value.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        int length = value == null ? 0 : value.length + 1;
+        while ((length & ~0x7F) != 0) {
+            buffer.put((byte) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        buffer.put((byte) length);
+        if (value != null) {
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getLength(buffer);
+        if (length == 0) {
+            return null;
+        }
+        int start = buffer.position();
+        buffer.position(start + length - 1);
+        return new String(buffer.array(), start, length - 1, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = getLength(buffer);
+        if (length == 0) {
+            return null;
+        }
+        byte[] value = new byte[length - 1];
+        buffer.get(value);
+        return value;
+    }
+
+    private static int getLength(ByteBuffer buffer) {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return length;
+    }
+}
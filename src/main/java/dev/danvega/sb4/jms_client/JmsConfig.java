@@ -0,0 +1,146 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.ConnectionFactory;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jms.autoconfigure.DefaultJmsListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.connection.SingleConnectionFactory;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.converter.SimpleMessageConverter;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NotificationProperties.class)
+public class JmsConfig {
+
+    public static final String NOTIFICATION_LISTENER_CONTAINER_FACTORY = "notificationListenerContainerFactory";
+
+    /**
+     * Listener container factory for the notification consumer. Boot's
+     * {@code spring.jms.listener.*} properties size it: consumers scale between the min and max
+     * concurrency with the backlog. On top of that consumers run on virtual threads, every
+     * delivery is transacted and read with the binary converter, and failed deliveries are
+     * counted by {@link NotificationListenerContainer}.
+     */
+    @Bean(NOTIFICATION_LISTENER_CONTAINER_FACTORY)
+    DefaultJmsListenerContainerFactory notificationListenerContainerFactory(DefaultJmsListenerContainerFactoryConfigurer configurer,
+                                                                            ConnectionFactory connectionFactory,
+                                                                            ObjectProvider<MessageConverter> messageConverter,
+                                                                            ObjectProvider<NotificationMetrics> metrics,
+                                                                            NotificationProperties properties) {
+        MessageConverter converter = notificationMessageConverter(messageConverter);
+        var factory = new DefaultJmsListenerContainerFactory() {
+            @Override
+            protected DefaultMessageListenerContainer createContainerInstance() {
+                return new NotificationListenerContainer(converter, metrics);
+            }
+        };
+        configurer.configure(factory, connectionFactory);
+        factory.setTaskExecutor(new VirtualThreadTaskExecutor("notification-listener-"));
+        factory.setMessageConverter(converter);
+        factory.setSessionTransacted(true);
+        // In batch mode BatchNotificationListener consumes the queue instead
+        factory.setAutoStartup(!properties.batch().enabled());
+        return factory;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.jms.batch", name = "enabled", havingValue = "true")
+    BatchNotificationListener batchNotificationListener(ConnectionFactory connectionFactory,
+                                                        ObjectProvider<MessageConverter> messageConverter,
+                                                        NotificationConsumer notificationConsumer,
+                                                        NotificationMetrics metrics,
+                                                        NotificationProperties properties) {
+        return new BatchNotificationListener(connectionFactory, notificationMessageConverter(messageConverter),
+                notificationConsumer, metrics, properties.batch());
+    }
+
+    /**
+     * Consumers always understand the binary notification format as well as the application's
+     * converter, so producers can switch a destination over without coordinating a deploy.
+     */
+    private static MessageConverter notificationMessageConverter(ObjectProvider<MessageConverter> messageConverter) {
+        return new BinaryNotificationMessageConverter(messageConverter.getIfAvailable(SimpleMessageConverter::new));
+    }
+
+    /**
+     * Tunes Artemis from {@code app.jms}, binding the properties once since post-processors are
+     * created before configuration properties beans. The consumer window size and the producer
+     * confirmation window size go to the Artemis connection factory, including when Boot wraps
+     * it in a caching connection factory. The {@code app.jms.broker} journal settings and message
+     * group rebalancing go to the embedded broker's configuration before Boot starts the server.
+     */
+    @Bean
+    static BeanPostProcessor artemisTuning(Environment environment) {
+        NotificationProperties properties = Binder.get(environment)
+                .bindOrCreate("app.jms", NotificationProperties.class);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof org.apache.activemq.artemis.core.config.Configuration configuration) {
+                    applyJournal(properties.broker(), configuration);
+                    applyMessageGroups(configuration);
+                    return bean;
+                }
+                Object target = bean instanceof SingleConnectionFactory caching ? caching.getTargetConnectionFactory() : bean;
+                if (target instanceof ActiveMQConnectionFactory artemis) {
+                    artemis.setConsumerWindowSize(properties.listener().consumerWindowSize());
+                    artemis.setConfirmationWindowSize(properties.producer().confirmationWindowSize());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Artemis pins a message group to the consumer that received its first message. The
+     * listener container starts with {@code spring.jms.listener.min-concurrency} consumers and adds more under load,
+     * so without rebalancing every group would stay on the first consumer. Rebalancing pauses
+     * dispatch until in-flight messages are acknowledged, so order within a group holds.
+     */
+    static void applyMessageGroups(org.apache.activemq.artemis.core.config.Configuration configuration) {
+        configuration.addAddressSetting(NotificationProducer.NOTIFICATION_QUEUE, new AddressSettings()
+                .setDefaultGroupRebalance(true)
+                .setDefaultGroupRebalancePauseDispatch(true));
+    }
+
+    static void applyJournal(NotificationProperties.Broker broker,
+                             org.apache.activemq.artemis.core.config.Configuration configuration) {
+        if (broker.journalType() != null) {
+            configuration.setJournalType(broker.journalType());
+        }
+        // NIO settings also drive the MAPPED journal
+        if (broker.journalBufferSize() != null) {
+            int bytes = Math.toIntExact(broker.journalBufferSize().toBytes());
+            configuration.setJournalBufferSize_NIO(bytes);
+            configuration.setJournalBufferSize_AIO(bytes);
+        }
+        if (broker.journalBufferTimeout() != null) {
+            int nanos = Math.toIntExact(broker.journalBufferTimeout().toNanos());
+            configuration.setJournalBufferTimeout_NIO(nanos);
+            configuration.setJournalBufferTimeout_AIO(nanos);
+        }
+        if (broker.journalFileSize() != null) {
+            configuration.setJournalFileSize(Math.toIntExact(broker.journalFileSize().toBytes()));
+        }
+        if (broker.journalSyncTransactional() != null) {
+            configuration.setJournalSyncTransactional(broker.journalSyncTransactional());
+        }
+        if (broker.journalSyncNonTransactional() != null) {
+            configuration.setJournalSyncNonTransactional(broker.journalSyncNonTransactional());
+        }
+        if (broker.journalDatasync() != null) {
+            configuration.setJournalDatasync(broker.journalDatasync());
+        }
+    }
+}
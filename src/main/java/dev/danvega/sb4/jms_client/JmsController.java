@@ -1,9 +1,17 @@
 package dev.danvega.sb4.jms_client;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/jms")
@@ -11,17 +19,27 @@ public class JmsController {
 
     private final NotificationProducer notificationProducer;
     private final NotificationConsumer notificationConsumer;
+    private final NotificationMetrics notificationMetrics;
+    private final NotificationAdmission notificationAdmission;
+    private final NotificationProgressPublisher progressPublisher;
 
-    public JmsController(NotificationProducer notificationProducer, NotificationConsumer notificationConsumer) {
+    public JmsController(NotificationProducer notificationProducer, NotificationConsumer notificationConsumer,
+                         NotificationMetrics notificationMetrics, NotificationAdmission notificationAdmission,
+                         NotificationProgressPublisher progressPublisher) {
         this.notificationProducer = notificationProducer;
         this.notificationConsumer = notificationConsumer;
+        this.notificationMetrics = notificationMetrics;
+        this.notificationAdmission = notificationAdmission;
+        this.progressPublisher = progressPublisher;
     }
 
     @PostMapping("/notifications")
     public ResponseEntity<Map<String, String>> sendNotification(
             @RequestBody NotificationRequest request) {
 
-        notificationProducer.sendNotification(request.message(), request.type());
+        notificationAdmission.admit(NotificationAdmission.Lane.REGULAR);
+
+        notificationProducer.sendNotification(request.message(), request.type(), request.groupKey());
 
         return ResponseEntity.ok(Map.of(
             "status", "Message sent successfully using JmsClient",
@@ -30,17 +48,69 @@ public class JmsController {
         ));
     }
 
+    /**
+     * Releases the request thread while the broker acknowledges the send. Answers 503 when the
+     * producer has too many unacknowledged sends to take another one.
+     */
+    @PostMapping("/notifications/async")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> sendNotificationAsync(
+            @RequestBody NotificationRequest request) {
+
+        notificationAdmission.admit(NotificationAdmission.Lane.REGULAR);
+
+        return notificationProducer.sendNotificationAsync(request.message(), request.type(), request.groupKey())
+                .handle((notification, ex) -> {
+                    if (ex == null) {
+                        return ResponseEntity.ok(Map.of(
+                            "status", "Message acknowledged by the broker",
+                            "id", notification.id(),
+                            "message", request.message(),
+                            "type", request.type()
+                        ));
+                    }
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    HttpStatus status = cause instanceof RejectedExecutionException
+                            ? HttpStatus.SERVICE_UNAVAILABLE
+                            : HttpStatus.INTERNAL_SERVER_ERROR;
+                    return ResponseEntity.status(status).body(Map.of(
+                        "status", "failed",
+                        "message", String.valueOf(cause.getMessage())
+                    ));
+                });
+    }
+
+    @PostMapping("/notifications/batch")
+    public ResponseEntity<BatchSendResult> sendNotificationBatch(
+            @RequestBody List<NotificationRequest> requests) {
+
+        notificationAdmission.admit(NotificationAdmission.Lane.REGULAR);
+
+        List<NotificationMessage> notifications = requests.stream()
+                .map(request -> NotificationMessage.of(request.message(), request.type()))
+                .toList();
+        List<String> groupKeys = requests.stream()
+                .map(NotificationRequest::groupKey)
+                .toList();
+
+        BatchSendResult result = notificationProducer.sendBatch(notifications, groupKeys);
+
+        return ResponseEntity.status(result.failed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS)
+                .body(result);
+    }
+
     @PostMapping("/notifications/urgent")
     public ResponseEntity<Map<String, String>> sendHighPriorityNotification(
             @RequestBody NotificationRequest request) {
 
+        notificationAdmission.admit(NotificationAdmission.Lane.URGENT);
+
         notificationProducer.sendHighPriorityNotification(request.message(), request.type());
 
         return ResponseEntity.ok(Map.of(
             "status", "High priority message sent successfully using JmsClient",
             "message", request.message(),
             "type", request.type(),
-            "note", "Priority handling via basic JmsClient API"
+            "note", "Sent with JMS priority, delivered ahead of queued notifications"
         ));
     }
 
@@ -48,6 +118,8 @@ public class JmsController {
     public ResponseEntity<Map<String, Object>> sendDelayedNotification(
             @RequestBody DelayedNotificationRequest request) {
 
+        notificationAdmission.admit(NotificationAdmission.Lane.REGULAR);
+
         notificationProducer.sendDelayedNotification(request.message(), request.type(), request.delayInMillis());
 
         return ResponseEntity.ok(Map.of(
@@ -55,19 +127,72 @@ public class JmsController {
             "message", request.message(),
             "type", request.type(),
             "delayInMillis", request.delayInMillis(),
-            "note", "Delay handling via basic JmsClient API"
+            "note", "Held by the broker as a scheduled delivery until the delay has passed"
         ));
     }
 
+    /**
+     * Queue depth, spooled, consumed and failed counts, and latency and processing-time
+     * percentiles per type. The same figures are published as {@code notification.*} metrics.
+     */
     @GetMapping("/notifications/status")
     public ResponseEntity<Map<String, Object>> getStatus() {
+        NotificationMetrics.Status metrics = notificationMetrics.status();
         return ResponseEntity.ok(Map.of(
             "totalProcessed", notificationConsumer.getMessageCount(),
+            "queue", metrics.queue(),
+            "consumed", metrics.consumed(),
+            "failed", metrics.failed(),
+            "types", metrics.types(),
+            "spooled", notificationProducer.spooled(),
             "status", "Consumer is running",
             "jmsClient", "Spring Boot 4 JmsClient in use"
         ));
     }
 
-    public record NotificationRequest(String message, String type) {}
+    /**
+     * Server-Sent Events stream of processing progress, rate and lag, pushed every
+     * {@code app.jms.progress.interval} instead of polling the status endpoint.
+     */
+    @GetMapping(path = "/notifications/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProgress() {
+        return progressPublisher.subscribe();
+    }
+
+    /**
+     * Sends refused by {@link NotificationAdmission}: 429 or 503, with {@code Retry-After} in seconds.
+     */
+    @ExceptionHandler(NotificationAdmission.RejectedException.class)
+    public ResponseEntity<Map<String, String>> handleRejected(NotificationAdmission.RejectedException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(Map.of(
+                    "status", "rejected",
+                    "message", ex.getMessage()
+                ));
+    }
+
+    /**
+     * A synchronous send refused because the producer's spool is full.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleSpoolFull(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+            "status", "rejected",
+            "message", String.valueOf(ex.getMessage())
+        ));
+    }
+
+    /**
+     * {@code groupKey} is optional: notifications with the same key are processed in order,
+     * and without one they are ordered per type.
+     */
+    public record NotificationRequest(String message, String type, String groupKey) {
+
+        public NotificationRequest(String message, String type) {
+            this(message, type, null);
+        }
+    }
+
     public record DelayedNotificationRequest(String message, String type, long delayInMillis) {}
 }
\ No newline at end of file
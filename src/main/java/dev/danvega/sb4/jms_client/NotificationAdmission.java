@@ -0,0 +1,210 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Refuses new notifications while the consumers are too far behind, so an overload shows up as
+ * fast rejections with {@code Retry-After} rather than as an ever growing broker backlog and
+ * ever growing end-to-end latency.
+ *
+ * The queue depth and the consumption rate are sampled at most once per {@code sampleInterval},
+ * so an admission check is normally a couple of volatile reads. Each lane sheds above its high
+ * watermark and recovers below its low watermark; regular sends additionally shed while the
+ * backlog would take longer than {@code maxLag} to drain. Urgent sends are sent with a higher
+ * JMS priority and do not wait behind the backlog, so they are shed last, at the urgent
+ * watermarks, which protect the broker itself.
+ */
+@Component
+public class NotificationAdmission {
+
+    public enum Lane {
+        REGULAR, URGENT
+    }
+
+    private static final double RATE_SMOOTHING = 0.2;
+
+    private final NotificationProperties.Admission admission;
+    private final NotificationMetrics metrics;
+    private final LongSupplier nanoClock;
+    private final Counter regularRejected;
+    private final Counter urgentRejected;
+
+    private volatile long nextSampleNanos;
+    private volatile long depth;
+    private volatile double drainRate = Double.NaN;
+    private volatile boolean sheddingRegular;
+    private volatile boolean sheddingUrgent;
+    private long lastSampleNanos;
+    private long lastConsumed = -1;
+
+    public NotificationAdmission(NotificationProperties properties, NotificationMetrics metrics,
+                                 MeterRegistry meterRegistry) {
+        this(properties.admission(), metrics, meterRegistry, System::nanoTime);
+    }
+
+    NotificationAdmission(NotificationProperties.Admission admission, NotificationMetrics metrics,
+                          MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.admission = admission;
+        this.metrics = metrics;
+        this.nanoClock = nanoClock;
+        this.nextSampleNanos = nanoClock.getAsLong();
+
+        this.regularRejected = rejectedCounter(meterRegistry, Lane.REGULAR);
+        this.urgentRejected = rejectedCounter(meterRegistry, Lane.URGENT);
+        Gauge.builder("notification.admission.drain.rate", this, a -> a.drainRate)
+                .description("Smoothed rate at which consumers drain notification-queue")
+                .baseUnit("messages/s")
+                .register(meterRegistry);
+        Gauge.builder("notification.admission.shedding", this, a -> a.sheddingRegular ? 1 : 0)
+                .description("Whether sends in this lane are being refused")
+                .tag("lane", "regular")
+                .register(meterRegistry);
+        Gauge.builder("notification.admission.shedding", this, a -> a.sheddingUrgent ? 1 : 0)
+                .description("Whether sends in this lane are being refused")
+                .tag("lane", "urgent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns when a send in the lane may go ahead.
+     *
+     * @throws RejectedException with 503 while urgent sends are shed, or 429 while only
+     * regular sends are
+     */
+    public void admit(Lane lane) {
+        if (!admission.enabled()) {
+            return;
+        }
+        sampleIfDue();
+        if (sheddingUrgent) {
+            reject(lane, HttpStatus.SERVICE_UNAVAILABLE, admission.urgentLowWatermark());
+        }
+        if (lane == Lane.REGULAR && sheddingRegular) {
+            reject(lane, HttpStatus.TOO_MANY_REQUESTS, regularTarget());
+        }
+    }
+
+    private void sampleIfDue() {
+        long now = nanoClock.getAsLong();
+        if (now - nextSampleNanos < 0) {
+            return;
+        }
+        synchronized (this) {
+            if (now - nextSampleNanos < 0) {
+                return;
+            }
+            nextSampleNanos = now + admission.sampleInterval().toNanos();
+            sample(now);
+        }
+    }
+
+    private void sample(long now) {
+        long consumed = metrics.consumedTotal();
+        // only a busy interval says anything about consumer capacity; an idle queue would
+        // drag the rate towards zero and make the next burst look like a huge lag
+        if (lastConsumed >= 0 && depth > 0 && now > lastSampleNanos) {
+            double rate = (consumed - lastConsumed) * 1e9 / (now - lastSampleNanos);
+            drainRate = Double.isNaN(drainRate) ? rate : drainRate + RATE_SMOOTHING * (rate - drainRate);
+        }
+        lastConsumed = consumed;
+        lastSampleNanos = now;
+
+        depth = metrics.queueDepth();
+        if (depth < 0) {
+            // no broker to measure; let the send itself report the problem
+            sheddingRegular = false;
+            sheddingUrgent = false;
+            return;
+        }
+
+        double lagSeconds = lagSeconds();
+        double maxLagSeconds = admission.maxLag().toNanos() / 1e9;
+        if (!sheddingRegular) {
+            sheddingRegular = depth >= admission.highWatermark() || lagSeconds >= maxLagSeconds;
+        } else if (depth <= admission.lowWatermark() && !(lagSeconds >= maxLagSeconds / 2)) {
+            sheddingRegular = false;
+        }
+        if (!sheddingUrgent) {
+            sheddingUrgent = depth >= admission.urgentHighWatermark();
+        } else if (depth <= admission.urgentLowWatermark()) {
+            sheddingUrgent = false;
+        }
+    }
+
+    /**
+     * Time the current backlog needs to drain, NaN until consumption has been observed.
+     */
+    private double lagSeconds() {
+        double rate = drainRate;
+        return rate > 0 ? depth / rate : Double.NaN;
+    }
+
+    /**
+     * Depth at which regular sends are accepted again: the low watermark, or less when the
+     * backlog is also too slow to drain.
+     */
+    private long regularTarget() {
+        double rate = drainRate;
+        long lagTarget = rate > 0 ? (long) (rate * admission.maxLag().toNanos() / 2e9) : Long.MAX_VALUE;
+        return Math.min(admission.lowWatermark(), lagTarget);
+    }
+
+    private void reject(Lane lane, HttpStatus status, long targetDepth) {
+        (lane == Lane.URGENT ? urgentRejected : regularRejected).increment();
+        throw new RejectedException(status, retryAfter(targetDepth),
+                "Notification queue is overloaded (depth " + depth + "), " + lane.name().toLowerCase() + " sends are refused");
+    }
+
+    /**
+     * Estimated time for the consumers to bring the queue down to {@code targetDepth}.
+     */
+    private Duration retryAfter(long targetDepth) {
+        double rate = drainRate;
+        if (!(rate > 0)) {
+            return admission.maxRetryAfter();
+        }
+        Duration estimate = Duration.ofSeconds((long) Math.ceil(Math.max(0, depth - targetDepth) / rate));
+        if (estimate.compareTo(admission.minRetryAfter()) < 0) {
+            return admission.minRetryAfter();
+        }
+        return estimate.compareTo(admission.maxRetryAfter()) > 0 ? admission.maxRetryAfter() : estimate;
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, Lane lane) {
+        return Counter.builder("notification.admission.rejected")
+                .description("Sends refused by admission control")
+                .tag("lane", lane.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    /**
+     * A send refused because the queue is overloaded; {@code retryAfter} is when it is worth
+     * trying again.
+     */
+    public static class RejectedException extends RuntimeException {
+
+        private final HttpStatus status;
+        private final Duration retryAfter;
+
+        public RejectedException(HttpStatus status, Duration retryAfter, String message) {
+            super(message);
+            this.status = status;
+            this.retryAfter = retryAfter;
+        }
+
+        public HttpStatus getStatus() {
+            return status;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+    }
+}
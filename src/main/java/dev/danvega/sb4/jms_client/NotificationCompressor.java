@@ -0,0 +1,124 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates notification text of at least {@code threshold} bytes, so large notifications cost
+ * the broker journal fewer bytes. Text that does not get smaller is left as it is.
+ *
+ * Each attempt is timed in {@code notification.compression.time}. Compression is pure CPU work
+ * on the sending thread, so the wall time is its CPU cost. The ratio of the text's size to the
+ * compressed size goes to {@code notification.compression.ratio}, and text that did not shrink
+ * is counted in {@code notification.compression.incompressible}.
+ */
+class NotificationCompressor {
+
+    static final String ALGORITHM = "deflate";
+
+    /**
+     * Largest text {@link #decompress} inflates, so a small crafted payload cannot expand into
+     * an arbitrary amount of consumer heap.
+     */
+    static final int MAX_TEXT_BYTES = 16 * 1024 * 1024;
+
+    private final int threshold;
+    private final int level;
+    private final Timer time;
+    private final DistributionSummary ratio;
+    private final Counter incompressible;
+
+    NotificationCompressor(NotificationProperties.Compression compression, MeterRegistry meterRegistry) {
+        this.threshold = Math.toIntExact(compression.threshold().toBytes());
+        this.level = compression.level();
+
+        this.time = Timer.builder("notification.compression.time")
+                .description("Time spent compressing notification text")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.ratio = DistributionSummary.builder("notification.compression.ratio")
+                .description("Uncompressed size over compressed size of compressed notification text")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.incompressible = Counter.builder("notification.compression.incompressible")
+                .description("Notifications above the threshold sent uncompressed because compressing did not shrink them")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The compressed text, or {@code null} when it is below the threshold or does not shrink.
+     */
+    byte[] compress(byte[] text) {
+        if (text == null || text.length < threshold) {
+            return null;
+        }
+        long start = System.nanoTime();
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(text);
+            deflater.finish();
+            // only worth sending if it fits in less than the original
+            byte[] compressed = new byte[text.length];
+            int length = 0;
+            while (!deflater.finished() && length < compressed.length) {
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            if (!deflater.finished() || length >= text.length) {
+                incompressible.increment();
+                return null;
+            }
+            ratio.record((double) text.length / length);
+            return Arrays.copyOf(compressed, length);
+        } finally {
+            deflater.end();
+            time.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static String decompress(byte[] compressed) throws DataFormatException {
+        return decompress(compressed, MAX_TEXT_BYTES);
+    }
+
+    /**
+     * Inflates text of at most {@code maxBytes} bytes; larger text fails with a
+     * {@link DataFormatException}.
+     */
+    static String decompress(byte[] compressed, int maxBytes) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            // one byte over the limit tells text of exactly maxBytes from larger text
+            int capacity = maxBytes + 1;
+            byte[] text = new byte[(int) Math.min(Math.max(64, compressed.length * 4L), capacity)];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == text.length) {
+                    if (length == capacity) {
+                        throw new DataFormatException("Notification text inflates to more than " + maxBytes + " bytes");
+                    }
+                    text = Arrays.copyOf(text, (int) Math.min(text.length * 2L, capacity));
+                }
+                int inflated = inflater.inflate(text, length, text.length - length);
+                if (inflated == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed notification text");
+                }
+                length += inflated;
+            }
+            if (length > maxBytes) {
+                throw new DataFormatException("Notification text inflates to more than " + maxBytes + " bytes");
+            }
+            return new String(text, 0, length, StandardCharsets.UTF_8);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -5,6 +5,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.jms.annotation.JmsListener;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
@@ -12,25 +16,80 @@ public class NotificationConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationConsumer.class);
     private final AtomicInteger messageCount = new AtomicInteger(0);
+    private final Duration processingTime;
+    private final NotificationMetrics metrics;
+    private final NotificationDeduplicator deduplicator;
 
-    @JmsListener(destination = "notification-queue")
+    public NotificationConsumer(NotificationProperties properties, NotificationMetrics metrics,
+                                NotificationDeduplicator deduplicator) {
+        this.processingTime = properties.consumer().processingTime();
+        this.metrics = metrics;
+        this.deduplicator = deduplicator;
+    }
+
+    @JmsListener(destination = "notification-queue", containerFactory = JmsConfig.NOTIFICATION_LISTENER_CONTAINER_FACTORY)
     public void processNotification(NotificationMessage notification) {
         logger.info("Received notification: {}", notification);
+        if (deduplicator.isDuplicate(notification)) {
+            logger.info("Dropping duplicate notification with ID: {}", notification.id());
+            return;
+        }
+        metrics.received(notification);
+        long start = System.nanoTime();
 
         messageCount.incrementAndGet();
 
         try {
-            Thread.sleep(1000);
+            Thread.sleep(processingTime);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             logger.error("Processing interrupted", e);
         }
+        metrics.processed(notification, System.nanoTime() - start);
+        deduplicator.processed(notification);
 
         logger.info("Processed notification with ID: {} (Total processed: {})",
                    notification.id(), messageCount.get());
     }
 
+    /**
+     * Handles a batch drained by {@link BatchNotificationListener}. The simulated processing
+     * cost is paid once per batch, as a bulk write would be, and every message still counts
+     * towards {@link #getMessageCount()} and the per-type metrics. Duplicates, including
+     * repeats within the batch, are dropped first.
+     */
+    public void processBatch(List<NotificationMessage> batch) {
+        logger.info("Received batch of {} notifications", batch.size());
+        Set<String> batchIds = new HashSet<>();
+        List<NotificationMessage> notifications = batch.stream()
+                .filter(notification -> !deduplicator.isDuplicate(notification))
+                .filter(notification -> notification.id() == null || batchIds.add(notification.id()))
+                .toList();
+        if (notifications.isEmpty()) {
+            logger.info("Dropping batch of {} duplicate notifications", batch.size());
+            return;
+        }
+        notifications.forEach(metrics::received);
+        long start = System.nanoTime();
+
+        messageCount.addAndGet(notifications.size());
+
+        try {
+            Thread.sleep(processingTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Batch processing interrupted", e);
+        }
+        // the batch is processed as one unit, so each message is charged an equal share
+        long perMessage = (System.nanoTime() - start) / notifications.size();
+        notifications.forEach(notification -> metrics.processed(notification, perMessage));
+        notifications.forEach(deduplicator::processed);
+
+        logger.info("Processed batch of {} notifications (Total processed: {})",
+                   notifications.size(), messageCount.get());
+    }
+
     public int getMessageCount() {
         return messageCount.get();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Drops notifications whose id has already been processed, in fixed memory.
+ *
+ * Recent ids are kept exactly in an LRU of {@code lruSize} entries. Older ids fall back to a
+ * {@link TimeWindowedBloomFilter} that remembers them for one to two {@code window}s. A Bloom
+ * filter hit without an LRU hit is either an older duplicate or a false positive, and there is
+ * nothing left to tell the two apart, so a genuinely new notification is dropped at the rate of
+ * both generations' combined false-positive rate, published as
+ * {@code notification.dedup.bloom.false.positive.rate}. That is why deduplication is off unless
+ * {@code app.jms.dedup.enabled} is set, for consumers that prefer losing such a notification to
+ * processing a duplicate.
+ *
+ * Ids are recorded only after successful processing, so a rolled back message that is
+ * redelivered is processed again rather than dropped.
+ */
+@Component
+public class NotificationDeduplicator {
+
+    /**
+     * Rough heap cost of one LRU entry: a 36 character id string plus the linked map entry.
+     */
+    static final int ESTIMATED_LRU_ENTRY_BYTES = 160;
+
+    private final NotificationProperties.Dedup dedup;
+    private final Map<String, Boolean> recent;
+    private final TimeWindowedBloomFilter bloomFilter;
+    private final Counter lruDuplicates;
+    private final Counter bloomDuplicates;
+
+    public NotificationDeduplicator(NotificationProperties properties, MeterRegistry meterRegistry) {
+        this(properties.dedup(), meterRegistry, System::nanoTime);
+    }
+
+    NotificationDeduplicator(NotificationProperties.Dedup dedup, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.dedup = dedup;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedup.lruSize();
+            }
+        };
+        this.bloomFilter = new TimeWindowedBloomFilter(dedup.expectedIds(), dedup.falsePositiveRate(),
+                dedup.window(), nanoClock);
+
+        this.lruDuplicates = Counter.builder("notification.dedup.duplicates")
+                .description("Notifications dropped as duplicates")
+                .tag("source", "lru")
+                .register(meterRegistry);
+        this.bloomDuplicates = Counter.builder("notification.dedup.duplicates")
+                .description("Notifications dropped as duplicates")
+                .tag("source", "bloom")
+                .register(meterRegistry);
+        Gauge.builder("notification.dedup.bloom.false.positive.rate", this, NotificationDeduplicator::falsePositiveRate)
+                .description("Estimated false-positive rate of both Bloom filter generations together")
+                .register(meterRegistry);
+        Gauge.builder("notification.dedup.memory", this, NotificationDeduplicator::memoryBytes)
+                .description("Bloom filter size plus estimated LRU size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("notification.dedup.lru.size", this, NotificationDeduplicator::lruSize)
+                .description("Ids held in the exact LRU")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the notification has been processed before and should be dropped.
+     */
+    public synchronized boolean isDuplicate(NotificationMessage notification) {
+        if (!dedup.enabled() || notification.id() == null) {
+            return false;
+        }
+        if (recent.get(notification.id()) != null) {
+            lruDuplicates.increment();
+            return true;
+        }
+        if (bloomFilter.mightContain(notification.id())) {
+            bloomDuplicates.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remembers the notification as processed.
+     */
+    public synchronized void processed(NotificationMessage notification) {
+        if (!dedup.enabled() || notification.id() == null) {
+            return;
+        }
+        recent.put(notification.id(), Boolean.TRUE);
+        bloomFilter.put(notification.id());
+    }
+
+    synchronized double falsePositiveRate() {
+        return bloomFilter.expectedFalsePositiveRate();
+    }
+
+    synchronized long memoryBytes() {
+        return bloomFilter.sizeInBytes() + (long) recent.size() * ESTIMATED_LRU_ENTRY_BYTES;
+    }
+
+    synchronized int lruSize() {
+        return recent.size();
+    }
+}
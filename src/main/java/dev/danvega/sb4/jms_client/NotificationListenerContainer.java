@@ -0,0 +1,45 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.converter.MessageConverter;
+
+/**
+ * Listener container for {@link NotificationConsumer} that counts every delivery the listener
+ * fails on in {@link NotificationMetrics#failed}, before the transaction is rolled back.
+ * That includes messages that cannot be converted to a {@link NotificationMessage}.
+ */
+class NotificationListenerContainer extends DefaultMessageListenerContainer {
+
+    private final MessageConverter messageConverter;
+    private final ObjectProvider<NotificationMetrics> metrics;
+
+    NotificationListenerContainer(MessageConverter messageConverter, ObjectProvider<NotificationMetrics> metrics) {
+        this.messageConverter = messageConverter;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void invokeListener(Session session, Message message) throws JMSException {
+        try {
+            super.invokeListener(session, message);
+        } catch (JMSException | RuntimeException ex) {
+            metrics.ifAvailable(notificationMetrics -> notificationMetrics.failed(notification(message)));
+            throw ex;
+        }
+    }
+
+    /**
+     * The notification in the message, or {@code null} if it cannot be converted.
+     */
+    private NotificationMessage notification(Message message) {
+        try {
+            return messageConverter.fromMessage(message) instanceof NotificationMessage notification ? notification : null;
+        } catch (JMSException | RuntimeException ex) {
+            return null;
+        }
+    }
+}
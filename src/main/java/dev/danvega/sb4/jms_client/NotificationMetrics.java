@@ -0,0 +1,202 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.activemq.artemis.api.core.management.QueueControl;
+import org.apache.activemq.artemis.api.core.management.ResourceNames;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer metrics for the notification pipeline:
+ * <ul>
+ * <li>{@code notification.queue.depth}, {@code .scheduled} and {@code .delivering}, read from the
+ * embedded Artemis broker's {@link QueueControl}</li>
+ * <li>{@code notification.latency}: enqueue to dequeue, measured from {@link NotificationMessage#timestamp()}</li>
+ * <li>{@code notification.processing}: time spent in the consumer</li>
+ * <li>{@code notification.consumed} and {@code notification.failed}, the latter counting every
+ * delivery that was rolled back or dead-lettered</li>
+ * </ul>
+ * All but the queue gauges are tagged with the notification {@code type}. Types come from
+ * callers, so only the first {@value #MAX_TYPES} distinct types get their own meters and any
+ * further ones are counted as {@code other}.
+ */
+@Component
+public class NotificationMetrics {
+
+    static final int MAX_TYPES = 100;
+    private static final String UNKNOWN_TYPE = "unknown";
+    private static final String OTHER_TYPE = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<EmbeddedActiveMQ> embeddedBroker;
+    private final Map<String, TypeMeters> types = new ConcurrentHashMap<>();
+
+    public NotificationMetrics(MeterRegistry meterRegistry, ObjectProvider<EmbeddedActiveMQ> embeddedBroker) {
+        this.meterRegistry = meterRegistry;
+        this.embeddedBroker = embeddedBroker;
+
+        queueGauge("notification.queue.depth", "Messages waiting in notification-queue", QueueControl::getMessageCount);
+        queueGauge("notification.queue.scheduled", "Scheduled messages not yet deliverable", QueueControl::getScheduledCount);
+        queueGauge("notification.queue.delivering", "Messages delivered but not yet acknowledged", QueueControl::getDeliveringCount);
+    }
+
+    /**
+     * Records how long the notification waited between being created and being picked up.
+     */
+    public void received(NotificationMessage notification) {
+        if (notification.timestamp() != null) {
+            Duration latency = Duration.between(notification.timestamp(), LocalDateTime.now());
+            meters(notification).latency().record(latency.isNegative() ? Duration.ZERO : latency);
+        }
+    }
+
+    public void processed(NotificationMessage notification, long processingNanos) {
+        TypeMeters meters = meters(notification);
+        meters.processing().record(processingNanos, TimeUnit.NANOSECONDS);
+        meters.consumed().increment();
+    }
+
+    /**
+     * Counts a delivery that failed; {@code notification} is {@code null} when the message could
+     * not be converted, which is counted as type {@code unknown}.
+     */
+    public void failed(NotificationMessage notification) {
+        meters(notification).failed().increment();
+    }
+
+    /**
+     * Current figures for the status endpoint.
+     */
+    public Status status() {
+        Map<String, TypeStatus> byType = new TreeMap<>();
+        long consumed = 0;
+        long failed = 0;
+        for (Map.Entry<String, TypeMeters> entry : types.entrySet()) {
+            TypeStatus typeStatus = entry.getValue().status();
+            byType.put(entry.getKey(), typeStatus);
+            consumed += typeStatus.consumed();
+            failed += typeStatus.failed();
+        }
+        return new Status(
+                new QueueStatus((long) queueValue(QueueControl::getMessageCount),
+                        (long) queueValue(QueueControl::getScheduledCount),
+                        (long) queueValue(QueueControl::getDeliveringCount)),
+                consumed, failed, byType);
+    }
+
+    /**
+     * Messages in {@code notification-queue}, including scheduled and delivering ones; -1 when
+     * the broker is not available.
+     */
+    public long queueDepth() {
+        return (long) queueValue(QueueControl::getMessageCount);
+    }
+
+    /**
+     * Notifications processed successfully since startup, across all types.
+     */
+    public long consumedTotal() {
+        long consumed = 0;
+        for (TypeMeters meters : types.values()) {
+            consumed += (long) meters.consumed().count();
+        }
+        return consumed;
+    }
+
+    private TypeMeters meters(NotificationMessage notification) {
+        String type = notification != null && notification.type() != null ? notification.type() : UNKNOWN_TYPE;
+        TypeMeters meters = types.get(type);
+        if (meters == null) {
+            meters = types.computeIfAbsent(types.size() < MAX_TYPES ? type : OTHER_TYPE, this::register);
+        }
+        return meters;
+    }
+
+    private TypeMeters register(String type) {
+        return new TypeMeters(
+                Counter.builder("notification.consumed")
+                        .description("Notifications processed successfully")
+                        .tag("type", type)
+                        .register(meterRegistry),
+                Counter.builder("notification.failed")
+                        .description("Notification deliveries that failed")
+                        .tag("type", type)
+                        .register(meterRegistry),
+                Timer.builder("notification.latency")
+                        .description("Time from notification creation to consumer pick-up")
+                        .tag("type", type)
+                        .publishPercentiles(0.5, 0.99)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                Timer.builder("notification.processing")
+                        .description("Time spent processing a notification")
+                        .tag("type", type)
+                        .publishPercentiles(0.5, 0.99)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    private void queueGauge(String name, String description, ToDoubleFunction<QueueControl> value) {
+        Gauge.builder(name, this, metrics -> metrics.queueValue(value))
+                .description(description)
+                .tag("queue", NotificationProducer.NOTIFICATION_QUEUE)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads a value through the broker's management API; -1 when there is no embedded broker
+     * or the queue does not exist yet.
+     */
+    private double queueValue(ToDoubleFunction<QueueControl> value) {
+        EmbeddedActiveMQ embedded = embeddedBroker.getIfAvailable();
+        ActiveMQServer server = embedded != null ? embedded.getActiveMQServer() : null;
+        if (server == null || server.getManagementService() == null) {
+            return -1;
+        }
+        Object resource = server.getManagementService().getResource(ResourceNames.QUEUE + NotificationProducer.NOTIFICATION_QUEUE);
+        return resource instanceof QueueControl queueControl ? value.applyAsDouble(queueControl) : -1;
+    }
+
+    private record TypeMeters(Counter consumed, Counter failed, Timer latency, Timer processing) {
+
+        TypeStatus status() {
+            return new TypeStatus((long) consumed.count(), (long) failed.count(),
+                    percentileMillis(latency, 0.5), percentileMillis(latency, 0.99),
+                    percentileMillis(processing, 0.5), percentileMillis(processing, 0.99));
+        }
+
+        private static double percentileMillis(Timer timer, double percentile) {
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == percentile) {
+                    return value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return Double.NaN;
+        }
+    }
+
+    public record Status(QueueStatus queue, long consumed, long failed, Map<String, TypeStatus> types) {
+    }
+
+    public record QueueStatus(long depth, long scheduled, long delivering) {
+    }
+
+    public record TypeStatus(long consumed, long failed,
+                             double latencyP50Millis, double latencyP99Millis,
+                             double processingP50Millis, double processingP99Millis) {
+    }
+}
@@ -1,58 +1,327 @@
 package dev.danvega.sb4.jms_client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.jms.core.JmsClient;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @Service
-public class NotificationProducer {
+public class NotificationProducer implements InitializingBean, DisposableBean {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationProducer.class);
-    private static final String NOTIFICATION_QUEUE = "notification-queue";
+    static final String NOTIFICATION_QUEUE = "notification-queue";
+    static final String GROUP_ID_PROPERTY = "JMSXGroupID";
+    private static final int DEFAULT_PRIORITY = -1;
+    private static final long NO_DELAY = 0;
 
     private final JmsClient jmsClient;
+    private final JmsTemplate jmsTemplate;
+    private final MessageConverter messageConverter;
+    private final AsyncNotificationSender asyncSender;
+    private final NotificationProperties.Producer properties;
+    private final NotificationProperties.Delivery delivery;
+    private final NotificationSpool spool;
+    private final SpoolForwarder spoolForwarder;
+
+    public NotificationProducer(JmsClient jmsClient, JmsTemplate jmsTemplate, NotificationProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties.producer();
+        this.delivery = properties.delivery();
+        boolean binary = properties.wireFormat().isBinary(NOTIFICATION_QUEUE);
+        NotificationCompressor compressor = properties.compression().enabled()
+                ? new NotificationCompressor(properties.compression(), meterRegistry)
+                : null;
+        if (binary || compressor != null) {
+            // a template of our own, so the binary format and compression apply to this destination only
+            this.messageConverter = new BinaryNotificationMessageConverter(jmsTemplate.getMessageConverter(),
+                    binary, compressor);
+            this.jmsTemplate = withMessageConverter(jmsTemplate, messageConverter);
+            this.jmsClient = JmsClient.create(this.jmsTemplate);
+        } else {
+            this.messageConverter = jmsTemplate.getMessageConverter();
+            this.jmsTemplate = jmsTemplate;
+            this.jmsClient = jmsClient;
+        }
+        this.asyncSender = new AsyncNotificationSender(this.jmsTemplate.getConnectionFactory(), messageConverter,
+                NOTIFICATION_QUEUE, this.properties.maxInFlight());
 
-    public NotificationProducer(JmsClient jmsClient) {
-        this.jmsClient = jmsClient;
+        NotificationProperties.Spool spoolProperties = properties.spool();
+        if (spoolProperties.enabled()) {
+            try {
+                this.spool = new NotificationSpool(spoolProperties.file(), Math.toIntExact(spoolProperties.capacity().toBytes()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not open notification spool " + spoolProperties.file(), ex);
+            }
+            this.spoolForwarder = new SpoolForwarder(spool, this.jmsTemplate.getConnectionFactory(), messageConverter,
+                    NOTIFICATION_QUEUE, spoolProperties.batchSize(), spoolProperties.retryInterval(),
+                    spoolProperties.maxAttempts());
+        } else {
+            this.spool = null;
+            this.spoolForwarder = null;
+        }
     }
 
-    public void sendNotification(String message, String type) {
-        NotificationMessage notification = NotificationMessage.of(message, type);
-        logger.info("Sending notification using JmsClient: {}", notification);
+    /**
+     * A copy of {@code template}, and so of Boot's {@code spring.jms.template.*} settings, that
+     * converts with {@code messageConverter}.
+     */
+    static JmsTemplate withMessageConverter(JmsTemplate template, MessageConverter messageConverter) {
+        var copy = new JmsTemplate(template.getConnectionFactory());
+        copy.setDestinationResolver(template.getDestinationResolver());
+        copy.setPubSubDomain(template.isPubSubDomain());
+        copy.setReplyPubSubDomain(template.isReplyPubSubDomain());
+        copy.setDefaultDestination(template.getDefaultDestination());
+        if (template.getDefaultDestinationName() != null) {
+            copy.setDefaultDestinationName(template.getDefaultDestinationName());
+        }
+        copy.setSessionTransacted(template.isSessionTransacted());
+        copy.setSessionAcknowledgeMode(template.getSessionAcknowledgeMode());
+        copy.setMessageIdEnabled(template.isMessageIdEnabled());
+        copy.setMessageTimestampEnabled(template.isMessageTimestampEnabled());
+        copy.setPubSubNoLocal(template.isPubSubNoLocal());
+        copy.setReceiveTimeout(template.getReceiveTimeout());
+        copy.setDeliveryDelay(template.getDeliveryDelay());
+        copy.setExplicitQosEnabled(template.isExplicitQosEnabled());
+        copy.setDeliveryMode(template.getDeliveryMode());
+        copy.setPriority(template.getPriority());
+        copy.setTimeToLive(template.getTimeToLive());
+        copy.setMessageConverter(messageConverter);
+        return copy;
+    }
 
-        jmsClient.destination(NOTIFICATION_QUEUE)
-                 .send(notification);
+    @Override
+    public void afterPropertiesSet() {
+        if (spoolForwarder != null) {
+            spoolForwarder.start();
+        }
+    }
 
-        logger.info("Notification sent successfully with ID: {}", notification.id());
+    public void sendNotification(String message, String type) {
+        sendNotification(NotificationMessage.of(message, type));
+    }
+
+    /**
+     * Sends in the message group {@code groupKey} instead of the notification's type, for
+     * callers that need ordering per entity rather than per type.
+     */
+    public void sendNotification(String message, String type, String groupKey) {
+        sendNotification(NotificationMessage.of(message, type), groupKey);
     }
 
     public void sendNotification(NotificationMessage notification) {
+        sendNotification(notification, null);
+    }
+
+    public void sendNotification(NotificationMessage notification, String groupKey) {
         logger.info("Sending notification using JmsClient: {}", notification);
 
-        jmsClient.destination(NOTIFICATION_QUEUE)
-                 .send(notification);
+        send(notification, groupKey, DEFAULT_PRIORITY, NO_DELAY);
 
         logger.info("Notification sent successfully with ID: {}", notification.id());
     }
 
+    /**
+     * Hands the notification to the client and returns immediately; the future completes when
+     * the broker has acknowledged it. Fails with a {@link java.util.concurrent.RejectedExecutionException}
+     * right away when {@code maxInFlight} sends are still unacknowledged.
+     */
+    public CompletableFuture<NotificationMessage> sendNotificationAsync(String message, String type) {
+        return sendNotificationAsync(NotificationMessage.of(message, type));
+    }
+
+    public CompletableFuture<NotificationMessage> sendNotificationAsync(String message, String type, String groupKey) {
+        return sendNotificationAsync(NotificationMessage.of(message, type), groupKey);
+    }
+
+    public CompletableFuture<NotificationMessage> sendNotificationAsync(NotificationMessage notification) {
+        return sendNotificationAsync(notification, null);
+    }
+
+    public CompletableFuture<NotificationMessage> sendNotificationAsync(NotificationMessage notification, String groupKey) {
+        logger.debug("Sending notification asynchronously: {}", notification);
+
+        return asyncSender.send(notification, delivery.deliveryMode(notification.type()), groupId(notification, groupKey));
+    }
+
+    /**
+     * Urgent notifications keep their type's message group, but their priority lets them
+     * overtake older notifications of the same group that are still queued.
+     */
     public void sendHighPriorityNotification(String message, String type) {
         NotificationMessage notification = NotificationMessage.of(message, type);
         logger.info("Sending high priority notification using JmsClient: {}", notification);
 
-        jmsClient.destination(NOTIFICATION_QUEUE)
-                 .send(notification);
+        send(notification, null, properties.urgentPriority(), NO_DELAY);
 
         logger.info("High priority notification sent successfully with ID: {}", notification.id());
     }
 
+    /**
+     * Sends with a JMS delivery delay, which Artemis turns into a scheduled delivery: the broker
+     * holds the message and only makes it visible to consumers once the delay has passed.
+     */
     public void sendDelayedNotification(String message, String type, long delayInMillis) {
         NotificationMessage notification = NotificationMessage.of(message, type);
         logger.info("Sending delayed notification using JmsClient: {} (delay: {}ms)", notification, delayInMillis);
 
-        jmsClient.destination(NOTIFICATION_QUEUE)
-                 .send(notification);
+        send(notification, null, DEFAULT_PRIORITY, delayInMillis);
 
         logger.info("Delayed notification sent successfully with ID: {}", notification.id());
     }
-}
\ No newline at end of file
+
+    /**
+     * Sends many notifications over a single transacted session, committing every
+     * {@code batchChunkSize} messages. A chunk that fails is rolled back and reported as failed
+     * without affecting the chunks around it.
+     */
+    public BatchSendResult sendBatch(List<NotificationMessage> notifications) {
+        return sendBatch(notifications, Collections.nCopies(notifications.size(), null));
+    }
+
+    /**
+     * Like {@link #sendBatch(List)}, sending each notification in the message group of the
+     * {@code groupKeys} entry at the same index; a {@code null} entry is grouped as by
+     * {@link #sendNotification(NotificationMessage)}.
+     */
+    public BatchSendResult sendBatch(List<NotificationMessage> notifications, List<String> groupKeys) {
+        if (groupKeys.size() != notifications.size()) {
+            throw new IllegalArgumentException("Expected " + notifications.size() + " group keys but got " + groupKeys.size());
+        }
+        int chunkSize = properties.batchChunkSize();
+        List<BatchSendResult.ItemResult> items = new ArrayList<>(notifications.size());
+        ConnectionFactory connectionFactory = jmsTemplate.getConnectionFactory();
+        logger.info("Sending batch of {} notifications in chunks of {}", notifications.size(), chunkSize);
+
+        try (Connection connection = connectionFactory.createConnection();
+             Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+             MessageProducer producer = session.createProducer(session.createQueue(NOTIFICATION_QUEUE))) {
+            for (int start = 0; start < notifications.size(); start += chunkSize) {
+                int end = Math.min(start + chunkSize, notifications.size());
+                try {
+                    for (int i = start; i < end; i++) {
+                        NotificationMessage notification = notifications.get(i);
+                        Message message = messageConverter.toMessage(notification, session);
+                        String groupId = groupId(notification, groupKeys.get(i));
+                        if (groupId != null) {
+                            message.setStringProperty(GROUP_ID_PROPERTY, groupId);
+                        }
+                        producer.setDeliveryMode(delivery.deliveryMode(notification.type()));
+                        producer.send(message);
+                    }
+                    session.commit();
+                    for (int i = start; i < end; i++) {
+                        items.add(BatchSendResult.ItemResult.accepted(i, notifications.get(i).id()));
+                    }
+                } catch (JMSException | MessageConversionException ex) {
+                    logger.warn("Rolling back notification chunk {}-{}: {}", start, end - 1, ex.getMessage());
+                    session.rollback();
+                    for (int i = start; i < end; i++) {
+                        items.add(BatchSendResult.ItemResult.failed(i, notifications.get(i).id(), ex.getMessage()));
+                    }
+                }
+            }
+        } catch (JMSException ex) {
+            logger.error("Batch send aborted after {} of {} notifications", items.size(), notifications.size(), ex);
+            for (int i = items.size(); i < notifications.size(); i++) {
+                items.add(BatchSendResult.ItemResult.failed(i, notifications.get(i).id(), ex.getMessage()));
+            }
+        }
+
+        BatchSendResult result = BatchSendResult.of(items);
+        logger.info("Batch sent: {} accepted, {} failed", result.accepted(), result.failed());
+        return result;
+    }
+
+    /**
+     * The notification queue, sent non-persistent when the notification's type is configured
+     * that way; JMS sends persistent by default.
+     */
+    private JmsClient.OperationSpec destination(NotificationMessage notification) {
+        JmsClient.OperationSpec destination = jmsClient.destination(NOTIFICATION_QUEUE);
+        return delivery.isPersistent(notification.type()) ? destination : destination.withDeliveryPersistent(false);
+    }
+
+    /**
+     * Appends to the spool when there is one, otherwise sends to the broker and waits for it.
+     *
+     * @throws RejectedExecutionException when the spool is full
+     */
+    private void send(NotificationMessage notification, String groupKey, int priority, long deliveryDelay) {
+        String groupId = groupId(notification, groupKey);
+        if (spool != null) {
+            var entry = new NotificationSpool.Entry(notification, groupId, delivery.deliveryMode(notification.type()),
+                    priority, deliveryDelay);
+            if (!spool.append(entry)) {
+                throw new RejectedExecutionException("Notification spool is full (" + spool.pending()
+                        + " notifications waiting to be forwarded)");
+            }
+            spoolForwarder.wakeUp();
+            return;
+        }
+
+        JmsClient.OperationSpec destination = destination(notification);
+        if (priority != DEFAULT_PRIORITY) {
+            destination = destination.withPriority(priority);
+        }
+        if (deliveryDelay != NO_DELAY) {
+            destination = destination.withDeliveryDelay(deliveryDelay);
+        }
+        if (groupId == null) {
+            destination.send(notification);
+        } else {
+            destination.send(notification, Map.of(GROUP_ID_PROPERTY, groupId));
+        }
+    }
+
+    /**
+     * The JMS message group: the caller's key, else the notification's type when message groups
+     * are on; {@code null} when there is nothing to group by.
+     */
+    private String groupId(NotificationMessage notification, String groupKey) {
+        if (groupKey != null) {
+            return groupKey;
+        }
+        return properties.messageGroups() ? notification.type() : null;
+    }
+
+    /**
+     * Notifications appended to the spool and not yet forwarded to the broker; 0 without a spool.
+     */
+    public int spooled() {
+        return spool != null ? spool.pending() : 0;
+    }
+
+    @Override
+    public void destroy() {
+        asyncSender.close();
+        if (spoolForwarder != null) {
+            spoolForwarder.close();
+            try {
+                spool.close();
+            } catch (IOException ex) {
+                logger.warn("Could not close notification spool", ex);
+            }
+        }
+    }
+}
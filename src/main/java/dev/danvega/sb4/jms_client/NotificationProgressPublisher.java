@@ -0,0 +1,200 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Pushes notification processing progress to Server-Sent Events subscribers. One scheduler
+ * thread takes a snapshot every {@code interval}, serializes it once with the application's
+ * {@link JsonMapper}, and hands that same event to every subscriber, so the metrics are read and
+ * the JSON is written once per interval however many dashboards are connected. With no
+ * subscribers nothing is sampled.
+ *
+ * Each write runs on its own virtual thread, since a client that stops reading blocks it once
+ * the connection's buffers are full. A subscriber still busy with the previous event skips the
+ * next one rather than queueing it, so a slow client neither delays the others nor piles up
+ * events.
+ *
+ * A new subscriber gets the latest event straight away instead of waiting for the next one.
+ * Subscriptions end after {@code timeout}; browsers' {@code EventSource} reconnects by itself.
+ */
+@Component
+public class NotificationProgressPublisher implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationProgressPublisher.class);
+    static final String EVENT_NAME = "progress";
+
+    private final NotificationProperties.Progress progress;
+    private final NotificationMetrics metrics;
+    private final JsonMapper jsonMapper;
+    private final LongSupplier nanoClock;
+    // whether a send to the subscriber is still in progress
+    private final Map<SseEmitter, AtomicBoolean> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("notification-progress").factory());
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("notification-progress-send-", 0).factory());
+
+    private volatile Set<ResponseBodyEmitter.DataWithMediaType> latest;
+    private long sequence;
+    private long lastSampleNanos;
+    private long lastProcessed = -1;
+
+    public NotificationProgressPublisher(NotificationProperties properties, NotificationMetrics metrics,
+                                         MeterRegistry meterRegistry, JsonMapper jsonMapper) {
+        this(properties.progress(), metrics, meterRegistry, jsonMapper, System::nanoTime);
+    }
+
+    NotificationProgressPublisher(NotificationProperties.Progress progress, NotificationMetrics metrics,
+                                  MeterRegistry meterRegistry, JsonMapper jsonMapper, LongSupplier nanoClock) {
+        this.progress = progress;
+        this.metrics = metrics;
+        this.jsonMapper = jsonMapper;
+        this.nanoClock = nanoClock;
+
+        Gauge.builder("notification.progress.subscribers", subscribers, Map::size)
+                .description("Clients subscribed to the notification progress stream")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long interval = progress.interval().toMillis();
+        scheduler.scheduleAtFixedRate(this::publishQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A new subscription, to be returned from a controller method.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(progress.timeout().toMillis());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(emitter));
+        subscribers.put(emitter, new AtomicBoolean());
+
+        Set<ResponseBodyEmitter.DataWithMediaType> event = latest;
+        if (event != null) {
+            send(emitter, event);
+        }
+        return emitter;
+    }
+
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    /**
+     * Samples progress and sends it to every subscriber.
+     */
+    synchronized void publish() {
+        if (subscribers.isEmpty()) {
+            // the next first subscriber should not see a rate averaged over the idle time
+            lastProcessed = -1;
+            latest = null;
+            return;
+        }
+        Progress snapshot = sample();
+        Set<ResponseBodyEmitter.DataWithMediaType> event = SseEmitter.event()
+                .id(String.valueOf(++sequence))
+                .name(EVENT_NAME)
+                .data(jsonMapper.writeValueAsString(snapshot), MediaType.APPLICATION_JSON)
+                .build();
+        latest = event;
+        subscribers.forEach((emitter, sending) -> {
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(() -> {
+                    try {
+                        send(emitter, event);
+                    } finally {
+                        sending.set(false);
+                    }
+                });
+            }
+        });
+    }
+
+    Progress sample() {
+        long now = nanoClock.getAsLong();
+        NotificationMetrics.Status status = metrics.status();
+        double rate = Double.NaN;
+        if (lastProcessed >= 0 && now > lastSampleNanos) {
+            rate = (status.consumed() - lastProcessed) * 1e9 / (now - lastSampleNanos);
+        }
+        lastProcessed = status.consumed();
+        lastSampleNanos = now;
+
+        long depth = status.queue().depth();
+        double lagSeconds = depth >= 0 && rate > 0 ? depth / rate : Double.NaN;
+        double latencyP99Millis = status.types().values().stream()
+                .mapToDouble(NotificationMetrics.TypeStatus::latencyP99Millis)
+                .filter(Double::isFinite)
+                .max()
+                .orElse(Double.NaN);
+        return new Progress(Instant.now(), status.consumed(), status.failed(), round(rate), depth,
+                status.queue().scheduled(), status.queue().delivering(), round(lagSeconds), round(latencyP99Millis));
+    }
+
+    /**
+     * One decimal place, or {@code null} for a value not known yet.
+     */
+    private static Double round(double value) {
+        return Double.isFinite(value) ? Math.round(value * 10) / 10.0 : null;
+    }
+
+    private void send(SseEmitter emitter, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException ex) {
+            // gone; the container completes the emitter
+            subscribers.remove(emitter);
+        }
+    }
+
+    private void publishQuietly() {
+        try {
+            publish();
+        } catch (RuntimeException ex) {
+            logger.warn("Could not publish notification progress", ex);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        subscribers.keySet().forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    /**
+     * One progress event, rounded to one decimal place. {@code ratePerSecond} is notifications
+     * processed per second since the previous event; {@code lagSeconds} is how long the queue
+     * would take to drain at that rate, and {@code latencyP99Millis} the worst per-type p99 time
+     * from creation to pick-up. Values not known yet are {@code null}.
+     */
+    record Progress(Instant timestamp, long processed, long failed, Double ratePerSecond, long queueDepth,
+                    long scheduled, long delivering, Double lagSeconds, Double latencyP99Millis) {
+    }
+}
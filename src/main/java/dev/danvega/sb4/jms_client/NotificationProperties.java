@@ -0,0 +1,233 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.DeliveryMode;
+import org.apache.activemq.artemis.core.server.JournalType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Settings for the notification producer and consumer.
+ */
+@ConfigurationProperties("app.jms")
+public record NotificationProperties(
+        @DefaultValue Listener listener,
+        @DefaultValue Consumer consumer,
+        @DefaultValue Batch batch,
+        @DefaultValue Producer producer,
+        @DefaultValue WireFormat wireFormat,
+        @DefaultValue Dedup dedup,
+        @DefaultValue Delivery delivery,
+        @DefaultValue Broker broker,
+        @DefaultValue Admission admission,
+        @DefaultValue Spool spool,
+        @DefaultValue Compression compression,
+        @DefaultValue Progress progress
+) {
+
+    /**
+     * Settings of the {@code notification-queue} consumers that Boot's
+     * {@code spring.jms.listener.*} properties do not cover. {@code consumerWindowSize} is the
+     * Artemis client-side buffer per consumer in bytes; 0 stops one consumer from prefetching a
+     * backlog that idle consumers could be working on.
+     */
+    public record Listener(
+            @DefaultValue("0") int consumerWindowSize
+    ) {
+    }
+
+    /**
+     * Simulated per-message processing cost of {@link NotificationConsumer}.
+     */
+    public record Consumer(
+            @DefaultValue("1s") Duration processingTime
+    ) {
+    }
+
+    /**
+     * Batch consumption mode. When enabled, the single-message listener is not started and
+     * {@code consumers} loops each drain up to {@code maxMessages} messages or wait up to
+     * {@code maxWait} after the first one, then handle and commit the batch as one transaction.
+     * A batch that still fails once one of its messages has been delivered {@code maxDeliveries}
+     * times is retried message by message, and the messages that fail on their own are moved to
+     * {@code deadLetterQueue}.
+     */
+    public record Batch(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("100") int maxMessages,
+            @DefaultValue("200ms") Duration maxWait,
+            @DefaultValue("2") int consumers,
+            @DefaultValue("3") int maxDeliveries,
+            @DefaultValue("DLQ") String deadLetterQueue
+    ) {
+    }
+
+    /**
+     * Producer side settings. Bulk sends are committed every {@code batchChunkSize} messages.
+     * Urgent notifications are sent with JMS priority {@code urgentPriority} (0-9, the JMS
+     * default being 4), so the broker delivers them ahead of any queued backlog.
+     * Async sends allow at most {@code maxInFlight} unacknowledged messages and fail beyond that
+     * without waiting for a slot. {@code confirmationWindowSize} is the Artemis buffer,
+     * in bytes, for send acknowledgements, which async completion callbacks depend on.
+     * A notification with a key supplied by the caller is sent in the JMS message group of that
+     * key, so the broker hands each group to one consumer at a time: groups are processed in
+     * parallel, and in order within a group. With {@code messageGroups} notifications without a
+     * key are grouped by their type, which limits each type to one consumer at a time.
+     */
+    public record Producer(
+            @DefaultValue("500") int batchChunkSize,
+            @DefaultValue("9") int urgentPriority,
+            @DefaultValue("1000") int maxInFlight,
+            @DefaultValue("1048576") int confirmationWindowSize,
+            @DefaultValue("false") boolean messageGroups
+    ) {
+    }
+
+    /**
+     * Destinations listed in {@code binaryDestinations} are sent in the compact format of
+     * {@link BinaryNotificationMessageConverter}; all others use the application's message
+     * converter. Consumers read either format.
+     */
+    public record WireFormat(
+            @DefaultValue Set<String> binaryDestinations
+    ) {
+
+        public boolean isBinary(String destination) {
+            return binaryDestinations.contains(destination);
+        }
+    }
+
+    /**
+     * Duplicate suppression in {@link NotificationConsumer}. The last {@code lruSize} processed
+     * ids are remembered exactly; older ones are remembered for one to two {@code window}s by
+     * Bloom filters sized for {@code expectedIds} ids per window at {@code falsePositiveRate}.
+     * Off by default: a Bloom filter false positive drops a notification that was never seen.
+     */
+    public record Dedup(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("10000") int lruSize,
+            @DefaultValue("100000") int expectedIds,
+            @DefaultValue("0.001") double falsePositiveRate,
+            @DefaultValue("10m") Duration window
+    ) {
+    }
+
+    /**
+     * JMS delivery mode per notification type. Types in {@code persistentTypes} or
+     * {@code nonPersistentTypes} override {@code persistent}. Non-persistent messages are not
+     * written to the broker journal, so they are faster to send but lost if the broker stops.
+     */
+    public record Delivery(
+            @DefaultValue("true") boolean persistent,
+            @DefaultValue Set<String> persistentTypes,
+            @DefaultValue Set<String> nonPersistentTypes
+    ) {
+
+        public boolean isPersistent(String type) {
+            if (type == null) {
+                return persistent;
+            }
+            if (persistentTypes.contains(type)) {
+                return true;
+            }
+            return !nonPersistentTypes.contains(type) && persistent;
+        }
+
+        public int deliveryMode(String type) {
+            return isPersistent(type) ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT;
+        }
+    }
+
+    /**
+     * Journal settings for the embedded Artemis broker; anything left unset keeps the Artemis
+     * default. Whether the broker persists at all is {@code spring.artemis.embedded.persistent}.
+     * <ul>
+     * <li>{@code journalType}: {@code NIO}, {@code ASYNCIO} (libaio, Linux only, falls back to NIO)
+     * or {@code MAPPED}</li>
+     * <li>{@code journalBufferSize} and {@code journalBufferTimeout}: how much is written, or how
+     * long the broker waits, before flushing the buffer to disk</li>
+     * <li>{@code journalSyncTransactional} and {@code journalSyncNonTransactional}: whether a
+     * commit or a non-transactional persistent send is acknowledged only after the journal flush</li>
+     * <li>{@code journalDatasync}: whether a flush includes an fsync, or only reaches the page cache</li>
+     * </ul>
+     */
+    public record Broker(
+            JournalType journalType,
+            DataSize journalBufferSize,
+            Duration journalBufferTimeout,
+            DataSize journalFileSize,
+            Boolean journalSyncTransactional,
+            Boolean journalSyncNonTransactional,
+            Boolean journalDatasync
+    ) {
+    }
+
+    /**
+     * Admission control in {@link JmsController}, driven by the depth of {@code notification-queue}
+     * sampled every {@code sampleInterval}. Regular sends are refused with 429 once the depth
+     * reaches {@code highWatermark}, or once the backlog would take longer than {@code maxLag}
+     * to drain at the observed consumption rate, and accepted again below {@code lowWatermark}.
+     * Urgent sends overtake the backlog, so they are only refused, with 503 along with everything
+     * else, between {@code urgentHighWatermark} and {@code urgentLowWatermark}. {@code Retry-After}
+     * is the estimated time to drain to the low watermark, between {@code minRetryAfter} and
+     * {@code maxRetryAfter}.
+     */
+    public record Admission(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("5000") long highWatermark,
+            @DefaultValue("2500") long lowWatermark,
+            @DefaultValue("20000") long urgentHighWatermark,
+            @DefaultValue("10000") long urgentLowWatermark,
+            @DefaultValue("30s") Duration maxLag,
+            @DefaultValue("200ms") Duration sampleInterval,
+            @DefaultValue("1s") Duration minRetryAfter,
+            @DefaultValue("60s") Duration maxRetryAfter
+    ) {
+    }
+
+    /**
+     * Write-ahead spool for {@link NotificationProducer}. When enabled, regular, urgent and
+     * delayed sends are appended to the memory-mapped {@code file} of {@code capacity} bytes and
+     * return; a forwarder sends them on in order, {@code batchSize} per transaction, retrying
+     * every {@code retryInterval} while the broker is unavailable. A notification that fails for
+     * any other reason is dropped, and logged, after {@code maxAttempts} attempts on its own.
+     * Async and batch sends, which report the broker's answer, always go straight to the broker.
+     */
+    public record Spool(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("data/notification-spool.bin") Path file,
+            @DefaultValue("64MB") DataSize capacity,
+            @DefaultValue("500") int batchSize,
+            @DefaultValue("1s") Duration retryInterval,
+            @DefaultValue("5") int maxAttempts
+    ) {
+    }
+
+    /**
+     * Compression of large notifications. When enabled, a notification whose text is at least
+     * {@code threshold} bytes is sent in the binary format with the text deflated at
+     * {@code level} (1 fastest to 9 smallest), whatever the destination's wire format.
+     * Consumers always read it, but only from this version on, so enable it after consumers
+     * are upgraded.
+     */
+    public record Compression(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("1KB") DataSize threshold,
+            @DefaultValue("1") int level
+    ) {
+    }
+
+    /**
+     * Server-Sent Events progress stream: a snapshot is pushed to all subscribers every
+     * {@code interval}, and each subscription ends after {@code timeout}.
+     */
+    public record Progress(
+            @DefaultValue("1s") Duration interval,
+            @DefaultValue("30m") Duration timeout
+    ) {
+    }
+}
@@ -0,0 +1,235 @@
+package dev.danvega.sb4.jms_client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only spool of notifications in a memory-mapped file, so a send costs a copy into the
+ * page cache instead of a broker round trip. Records are read back in the order they were
+ * appended and removed once forwarded; the read position is kept in the file header, so
+ * whatever was not forwarded is still there after a restart.
+ *
+ * Layout: a header with magic, version and the read position, then records of a length, a
+ * CRC32 of the body and the body: delivery mode, priority, delivery delay, the message group as
+ * length-prefixed UTF-8 and the notification in the {@link BinaryNotificationMessageConverter}
+ * format. A zero length marks the end, so recovery stops at the first torn or missing record.
+ *
+ * Space is reclaimed by rewinding to the start once everything has been forwarded, or by moving
+ * the unread records to the start when they no longer overlap it. Data reaches the page cache,
+ * which survives a crash of the application but not of the machine.
+ */
+class NotificationSpool implements AutoCloseable {
+
+    private static final int MAGIC = 0x53504F4C; // "SPOL"
+    private static final byte VERSION = 1;
+    private static final int READ_POSITION_OFFSET = 8;
+    static final int HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int END = 0;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int readPosition;
+    private int writePosition;
+    private int pending;
+
+    /**
+     * One spooled send: the notification and how to send it. {@code priority} is -1 for the
+     * JMS default and {@code groupId} may be {@code null}.
+     */
+    record Entry(NotificationMessage notification, String groupId, int deliveryMode, int priority, long deliveryDelay) {
+    }
+
+    /**
+     * Entries read from the head of the spool, and how many bytes they take up.
+     */
+    record Batch(List<Entry> entries, int bytes) {
+
+        boolean isEmpty() {
+            return entries.isEmpty();
+        }
+    }
+
+    NotificationSpool(Path file, int capacity) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.capacity = (int) Math.max(channel.size(), capacity);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.capacity);
+
+        int magic = buffer.getInt(0);
+        if (magic == 0) {
+            buffer.putInt(HEADER_BYTES, END);
+            buffer.putInt(0, MAGIC).put(Integer.BYTES, VERSION).putInt(READ_POSITION_OFFSET, HEADER_BYTES);
+        } else if (magic != MAGIC || buffer.get(Integer.BYTES) != VERSION) {
+            channel.close();
+            throw new IOException("Not a version " + VERSION + " notification spool: " + file);
+        }
+        recover();
+    }
+
+    /**
+     * Appends the entry, or returns {@code false} when the spool is full.
+     */
+    synchronized boolean append(Entry entry) {
+        byte[] body = encode(entry);
+        int size = RECORD_HEADER_BYTES + body.length;
+        if (!fits(size)) {
+            compact();
+            if (!fits(size)) {
+                return false;
+            }
+        }
+        if (writePosition + size + Integer.BYTES <= capacity) {
+            buffer.putInt(writePosition + size, END);
+        }
+        buffer.put(writePosition + RECORD_HEADER_BYTES, body);
+        buffer.putInt(writePosition + Integer.BYTES, crc(body));
+        // the length goes last, so a record is only visible to recovery once complete
+        buffer.putInt(writePosition, body.length);
+        writePosition += size;
+        pending++;
+        return true;
+    }
+
+    /**
+     * Reads up to {@code max} entries from the head of the spool without removing them.
+     */
+    synchronized Batch peek(int max) {
+        List<Entry> entries = new ArrayList<>(Math.min(max, pending));
+        int position = readPosition;
+        while (entries.size() < max && position < writePosition) {
+            int length = buffer.getInt(position);
+            byte[] body = new byte[length];
+            buffer.get(position + RECORD_HEADER_BYTES, body);
+            entries.add(decode(body));
+            position += RECORD_HEADER_BYTES + length;
+        }
+        return new Batch(entries, position - readPosition);
+    }
+
+    /**
+     * Removes a batch returned by {@link #peek} once it has been forwarded.
+     */
+    synchronized void remove(Batch batch) {
+        readPosition += batch.bytes();
+        pending -= batch.entries().size();
+        if (readPosition == writePosition) {
+            // drained: start over at the front, end marker first so recovery never sees old records
+            buffer.putInt(HEADER_BYTES, END);
+            readPosition = HEADER_BYTES;
+            writePosition = HEADER_BYTES;
+        }
+        buffer.putInt(READ_POSITION_OFFSET, readPosition);
+    }
+
+    synchronized int pending() {
+        return pending;
+    }
+
+    synchronized int sizeInBytes() {
+        return writePosition - readPosition;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private boolean fits(int size) {
+        return writePosition + size <= capacity;
+    }
+
+    /**
+     * Moves the unread records to the front. Only done when they do not overlap their new place,
+     * so until the header points at the front the old copy is intact.
+     */
+    private void compact() {
+        int length = writePosition - readPosition;
+        if (readPosition == HEADER_BYTES || HEADER_BYTES + length + Integer.BYTES > readPosition) {
+            return;
+        }
+        buffer.put(HEADER_BYTES, buffer.duplicate(), readPosition, length);
+        buffer.putInt(HEADER_BYTES + length, END);
+        buffer.putInt(READ_POSITION_OFFSET, HEADER_BYTES);
+        readPosition = HEADER_BYTES;
+        writePosition = HEADER_BYTES + length;
+    }
+
+    private void recover() throws IOException {
+        readPosition = buffer.getInt(READ_POSITION_OFFSET);
+        if (readPosition < HEADER_BYTES || readPosition > capacity) {
+            throw new IOException("Corrupt notification spool header, read position " + readPosition);
+        }
+        int position = readPosition;
+        while (position + RECORD_HEADER_BYTES <= capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_BYTES + length > capacity) {
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(position + RECORD_HEADER_BYTES, body);
+            if (crc(body) != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            position += RECORD_HEADER_BYTES + length;
+            pending++;
+        }
+        writePosition = position;
+        if (writePosition + Integer.BYTES <= capacity) {
+            buffer.putInt(writePosition, END);
+        }
+    }
+
+    private static byte[] encode(Entry entry) {
+        byte[] group = entry.groupId() != null ? entry.groupId().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] notification = BinaryNotificationMessageConverter.encode(entry.notification());
+        return ByteBuffer.allocate(2 + Long.BYTES + Integer.BYTES + (group != null ? group.length : 0) + notification.length)
+                .put((byte) entry.deliveryMode())
+                .put((byte) entry.priority())
+                .putLong(entry.deliveryDelay())
+                .putInt(group != null ? group.length : -1)
+                .put(group != null ? group : new byte[0])
+                .put(notification)
+                .array();
+    }
+
+    private static Entry decode(byte[] body) {
+        ByteBuffer in = ByteBuffer.wrap(body);
+        int deliveryMode = in.get();
+        int priority = in.get();
+        long deliveryDelay = in.getLong();
+        int groupLength = in.getInt();
+        String groupId = null;
+        if (groupLength >= 0) {
+            groupId = new String(body, in.position(), groupLength, StandardCharsets.UTF_8);
+            in.position(in.position() + groupLength);
+        }
+        byte[] notification = new byte[in.remaining()];
+        in.get(notification);
+        return new Entry(BinaryNotificationMessageConverter.decode(notification), groupId, deliveryMode, priority, deliveryDelay);
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
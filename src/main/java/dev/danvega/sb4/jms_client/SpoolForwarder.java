@@ -0,0 +1,212 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageFormatException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains a {@link NotificationSpool} to the broker on a background thread. Up to
+ * {@code batchSize} entries are sent in one transaction and removed from the spool only after
+ * the commit, so they are forwarded in spool order and at least once. When the broker is
+ * unavailable the batch stays at the head of the spool and is retried every
+ * {@code retryInterval} on a fresh connection.
+ *
+ * A batch that fails for any other reason, such as a notification the converter cannot write,
+ * is retried one entry at a time to find the entry at fault. An entry that still fails on its
+ * own after {@code maxAttempts} attempts is logged and dropped, so it cannot hold up the spool.
+ */
+class SpoolForwarder implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpoolForwarder.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final NotificationSpool spool;
+    private final ConnectionFactory connectionFactory;
+    private final MessageConverter messageConverter;
+    private final String destination;
+    private final int batchSize;
+    private final Duration retryInterval;
+    private final int maxAttempts;
+    private volatile boolean running;
+    private volatile Thread worker;
+    private Connection connection;
+    private Session session;
+    private MessageProducer producer;
+    // entries still to forward one at a time after a batch failed, and failures of the head entry
+    private int singly;
+    private int headFailures;
+
+    SpoolForwarder(NotificationSpool spool, ConnectionFactory connectionFactory, MessageConverter messageConverter,
+                   String destination, int batchSize, Duration retryInterval, int maxAttempts) {
+        this.spool = spool;
+        this.connectionFactory = connectionFactory;
+        this.messageConverter = messageConverter;
+        this.destination = destination;
+        this.batchSize = batchSize;
+        this.retryInterval = retryInterval;
+        this.maxAttempts = maxAttempts;
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofVirtual().name("notification-spool-forwarder").start(this::forward);
+        if (spool.pending() > 0) {
+            logger.info("Forwarding {} notifications left in the spool", spool.pending());
+        }
+    }
+
+    /**
+     * Lets the forwarder know there is something new in the spool, instead of waiting for its
+     * next idle check.
+     */
+    void wakeUp() {
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void forward() {
+        while (running) {
+            try {
+                if (!forwardOnce()) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (JMSException | RuntimeException ex) {
+                logger.warn("Could not forward spooled notifications, {} pending, retrying in {}ms: {}",
+                        spool.pending(), retryInterval.toMillis(), ex.getMessage());
+                closeConnection();
+                pause();
+            }
+        }
+    }
+
+    /**
+     * Sends and removes one batch from the head of the spool; {@code false} if it was empty.
+     */
+    boolean forwardOnce() throws JMSException {
+        NotificationSpool.Batch batch = spool.peek(singly > 0 ? 1 : batchSize);
+        if (batch.isEmpty()) {
+            return false;
+        }
+        try {
+            send(batch);
+        } catch (JMSException | RuntimeException ex) {
+            if (isTransient(ex)) {
+                throw ex;
+            }
+            if (batch.entries().size() > 1) {
+                singly = batch.entries().size();
+                throw ex;
+            }
+            if (++headFailures < maxAttempts) {
+                throw ex;
+            }
+            NotificationSpool.Entry entry = batch.entries().getFirst();
+            logger.error("Dropping spooled notification {} (group {}) after {} failed attempts",
+                    entry.notification(), entry.groupId(), headFailures, ex);
+        }
+        spool.remove(batch);
+        headFailures = 0;
+        if (singly > 0) {
+            singly--;
+        }
+        return true;
+    }
+
+    /**
+     * Broker and connection failures go away by themselves; a message the client or broker
+     * cannot take does not.
+     */
+    private static boolean isTransient(Exception ex) {
+        return ex instanceof JMSException && !(ex instanceof MessageFormatException);
+    }
+
+    /**
+     * Sleeps rather than parks, so new sends calling {@link #wakeUp} do not cut the retry short.
+     */
+    private void pause() {
+        try {
+            Thread.sleep(retryInterval);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void send(NotificationSpool.Batch batch) throws JMSException {
+        MessageProducer messageProducer = producer();
+        try {
+            for (NotificationSpool.Entry entry : batch.entries()) {
+                Message message = messageConverter.toMessage(entry.notification(), session);
+                if (entry.groupId() != null) {
+                    message.setStringProperty(NotificationProducer.GROUP_ID_PROPERTY, entry.groupId());
+                }
+                messageProducer.setDeliveryDelay(entry.deliveryDelay());
+                messageProducer.send(message, entry.deliveryMode(),
+                        entry.priority() >= 0 ? entry.priority() : Message.DEFAULT_PRIORITY, Message.DEFAULT_TIME_TO_LIVE);
+            }
+            session.commit();
+        } catch (JMSException | RuntimeException ex) {
+            if (session != null) {
+                try {
+                    session.rollback();
+                } catch (JMSException rollbackFailure) {
+                    ex.addSuppressed(rollbackFailure);
+                }
+            }
+            throw ex;
+        }
+    }
+
+    private MessageProducer producer() throws JMSException {
+        if (producer == null) {
+            connection = connectionFactory.createConnection();
+            session = connection.createSession(true, Session.SESSION_TRANSACTED);
+            producer = session.createProducer(session.createQueue(destination));
+        }
+        return producer;
+    }
+
+    private void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (JMSException ex) {
+                logger.debug("Could not close spool forwarder connection", ex);
+            }
+        }
+        connection = null;
+        session = null;
+        producer = null;
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(retryInterval.toMillis() + 1000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+        closeConnection();
+    }
+}
@@ -0,0 +1,134 @@
+package dev.danvega.sb4.jms_client;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Two generations of a Bloom filter over string keys. Keys go into the current generation and
+ * are looked up in both; once the current generation is older than the window it becomes the
+ * previous one and the old previous one is dropped. A key is therefore remembered for at least
+ * one window and at most two, in memory fixed at construction.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+class TimeWindowedBloomFilter {
+
+    private final int bits;
+    private final int hashes;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private long[] current;
+    private long[] previous;
+    private long currentStart;
+    private int currentBitsSet;
+    private int previousBitsSet;
+
+    /**
+     * @param expectedKeys keys expected per window
+     * @param falsePositiveRate target false-positive probability of one generation holding
+     * {@code expectedKeys} keys
+     */
+    TimeWindowedBloomFilter(int expectedKeys, double falsePositiveRate, Duration window, LongSupplier nanoClock) {
+        double ln2 = Math.log(2);
+        this.bits = (int) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedKeys * ln2));
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+        this.current = new long[(bits + 63) >>> 6];
+        this.previous = new long[current.length];
+        this.currentStart = nanoClock.getAsLong();
+    }
+
+    boolean mightContain(String key) {
+        rotateIfDue();
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return contains(current, h1, h2) || contains(previous, h1, h2);
+    }
+
+    void put(String key) {
+        rotateIfDue();
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(h1, h2, i);
+            long mask = 1L << bit;
+            if ((current[bit >>> 6] & mask) == 0) {
+                current[bit >>> 6] |= mask;
+                currentBitsSet++;
+            }
+        }
+    }
+
+    /**
+     * Estimated probability that a key never added is reported as present, from the fraction of
+     * bits set in each generation. A lookup hits if either generation does.
+     */
+    double expectedFalsePositiveRate() {
+        rotateIfDue();
+        double currentRate = Math.pow((double) currentBitsSet / bits, hashes);
+        double previousRate = Math.pow((double) previousBitsSet / bits, hashes);
+        return 1 - (1 - currentRate) * (1 - previousRate);
+    }
+
+    long sizeInBytes() {
+        return 2L * current.length * Long.BYTES;
+    }
+
+    private boolean contains(long[] generation, int h1, int h2) {
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(h1, h2, i);
+            if ((generation[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int h1, int h2, int i) {
+        // Kirsch-Mitzenmacher double hashing
+        int combined = h1 + i * h2;
+        return (combined & Integer.MAX_VALUE) % bits;
+    }
+
+    private void rotateIfDue() {
+        long now = nanoClock.getAsLong();
+        if (now - currentStart < windowNanos) {
+            return;
+        }
+        long[] recycled = previous;
+        Arrays.fill(recycled, 0L);
+        previous = current;
+        previousBitsSet = currentBitsSet;
+        // more than two windows idle: the previous generation is stale as well
+        if (now - currentStart >= 2 * windowNanos) {
+            Arrays.fill(previous, 0L);
+            previousBitsSet = 0;
+        }
+        current = recycled;
+        currentStart = now;
+        currentBitsSet = 0;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so both halves
+     * are usable as independent hashes.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,69 @@
+package dev.danvega.sb4.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Like {@link org.springframework.resilience.annotation.ConcurrencyLimit}, but the number of
+ * concurrent calls is not fixed: it starts at {@link #initialLimit()} and follows the method's
+ * observed latency and errors between {@link #minLimit()} and {@link #maxLimit()}.
+ *
+ * The limit grows while latency stays within {@link #tolerance()} times its long-term baseline
+ * and the callers actually use the permits, shrinks in proportion as latency rises above that,
+ * and is cut by {@link #backoffRatio()} for every call that throws, other than with a
+ * {@link RetryBudgetExhaustedException}. Calls over the limit wait
+ * for a permit in a queue bounded by {@link #maxQueue()} and {@link #maxWait()}; past either,
+ * they fail fast with {@link ConcurrencyLimitExceededException}.
+ *
+ * The current limit, in-flight and queued calls are published as
+ * {@code resilience.concurrency.limit}, {@code resilience.concurrency.inflight} and
+ * {@code resilience.concurrency.queued}, the time spent queued as
+ * {@code resilience.concurrency.wait} and the calls turned away as
+ * {@code resilience.concurrency.rejected}, all tagged with the method.
+ *
+ * @see AdaptiveConcurrencyLimitBeanPostProcessor
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AdaptiveConcurrencyLimit {
+
+    int initialLimit() default 4;
+
+    int minLimit() default 1;
+
+    int maxLimit() default 64;
+
+    /**
+     * How far latency may rise over its baseline before the limit shrinks; 1.5 allows 50%.
+     */
+    double tolerance() default 1.5;
+
+    /**
+     * Factor applied to the limit when a call throws.
+     */
+    double backoffRatio() default 0.9;
+
+    /**
+     * Most calls that may wait for a permit; by default there is no bound.
+     */
+    int maxQueue() default Integer.MAX_VALUE;
+
+    /**
+     * Longest a call may wait for a permit, in milliseconds; -1 waits as long as it takes.
+     */
+    long maxWait() default -1;
+
+    /**
+     * Which waiting call gets the next permit. LIFO serves the newest, whose callers are the
+     * most likely to still be waiting for the answer, and lets the oldest time out.
+     */
+    QueueOrder queueOrder() default QueueOrder.FIFO;
+
+    enum QueueOrder {
+        FIFO, LIFO
+    }
+}
@@ -0,0 +1,40 @@
+package dev.danvega.sb4.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+/**
+ * Proxies beans with {@link AdaptiveConcurrencyLimit} methods, the way
+ * {@code @EnableResilientMethods} does for {@code @ConcurrencyLimit}. Limiters are created when
+ * the bean is, so their metrics are there before the first call.
+ */
+public class AdaptiveConcurrencyLimitBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private final AdaptiveConcurrencyLimitInterceptor interceptor;
+
+    public AdaptiveConcurrencyLimitBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.interceptor = new AdaptiveConcurrencyLimitInterceptor(meterRegistry);
+        this.advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, AdaptiveConcurrencyLimit.class, true), interceptor);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Object result = super.postProcessAfterInitialization(bean, beanName);
+        // an existing proxy, say for @Retryable, gets the advisor added and is returned as is
+        if (result instanceof Advised advised && Arrays.asList(advised.getAdvisors()).contains(advisor)) {
+            ReflectionUtils.doWithMethods(ClassUtils.getUserClass(bean), interceptor::limiter,
+                    method -> AnnotatedElementUtils.hasAnnotation(method, AdaptiveConcurrencyLimit.class));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,125 @@
+package dev.danvega.sb4.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link AdaptiveConcurrencyLimit}: one {@link AdaptiveConcurrencyLimiter} per annotated
+ * method, fed with the latency and outcome of every call. Calls that a {@link RetryBudget} inside it
+ * stops with {@link RetryBudgetExhaustedException} release their permit without adjusting the limit.
+ */
+public class AdaptiveConcurrencyLimitInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Method, Limited> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimitInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null
+                ? ClassUtils.getUserClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Limited limited = limited(AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass));
+        AdaptiveConcurrencyLimiter limiter = limited.limiter();
+
+        long queuedAt = System.nanoTime();
+        int inFlight;
+        try {
+            inFlight = limiter.acquire();
+        } catch (ConcurrencyLimitExceededException ex) {
+            // a timed out caller waited too, for nothing
+            limited.waitTime().record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            limited.rejected().get(ex.getReason()).increment();
+            throw ex;
+        }
+        long start = System.nanoTime();
+        limited.waitTime().record(start - queuedAt, TimeUnit.NANOSECONDS);
+        boolean failed = true;
+        boolean sampled = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } catch (RetryBudgetExhaustedException ex) {
+            // the budget turned a retry away locally, which says nothing about the method's capacity
+            sampled = false;
+            throw ex;
+        } finally {
+            if (sampled) {
+                limiter.release(System.nanoTime() - start, failed, inFlight);
+            } else {
+                limiter.releaseWithoutSample();
+            }
+        }
+    }
+
+    /**
+     * The limiter of an annotated method, created with its metrics on first use.
+     */
+    AdaptiveConcurrencyLimiter limiter(Method method) {
+        return limited(method).limiter();
+    }
+
+    private Limited limited(Method method) {
+        return limiters.computeIfAbsent(method, this::createLimiter);
+    }
+
+    private Limited createLimiter(Method method) {
+        AdaptiveConcurrencyLimit annotation = AnnotatedElementUtils.findMergedAnnotation(method, AdaptiveConcurrencyLimit.class);
+        if (annotation == null) {
+            throw new IllegalStateException("No @AdaptiveConcurrencyLimit on " + method);
+        }
+        var limiter = new AdaptiveConcurrencyLimiter(annotation);
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        Gauge.builder("resilience.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("method", name)
+                .register(registry);
+        Gauge.builder("resilience.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Calls currently running under the adaptive concurrency limit")
+                .tag("method", name)
+                .register(registry);
+        Gauge.builder("resilience.concurrency.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                .description("Calls waiting for a permit under the adaptive concurrency limit")
+                .tag("method", name)
+                .register(registry);
+        Timer waitTime = Timer.builder("resilience.concurrency.wait")
+                .description("Time calls waited for a permit under the adaptive concurrency limit, granted or not")
+                .tag("method", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Map<ConcurrencyLimitExceededException.Reason, Counter> rejected = new EnumMap<>(ConcurrencyLimitExceededException.Reason.class);
+        for (ConcurrencyLimitExceededException.Reason reason : ConcurrencyLimitExceededException.Reason.values()) {
+            rejected.put(reason, Counter.builder("resilience.concurrency.rejected")
+                    .description("Calls turned away by the adaptive concurrency limit's queue")
+                    .tag("method", name)
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        return new Limited(limiter, waitTime, rejected);
+    }
+
+    private record Limited(AdaptiveConcurrencyLimiter limiter, Timer waitTime,
+                           Map<ConcurrencyLimitExceededException.Reason, Counter> rejected) {
+    }
+}
@@ -0,0 +1,214 @@
+package dev.danvega.sb4.resilience;
+
+import dev.danvega.sb4.resilience.AdaptiveConcurrencyLimit.QueueOrder;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Permits for one {@link AdaptiveConcurrencyLimit} method, with a limit that follows latency
+ * gradient-style: a short-term average of latency is compared to a slowly moving long-term
+ * baseline, and the limit is scaled by {@code tolerance * baseline / shortTerm}, capped at 1,
+ * plus a headroom of {@code sqrt(limit)} so it keeps probing upwards while latency holds.
+ * Errors apply a multiplicative decrease. The limit only grows while at least half of it is in
+ * use, since an idle method says nothing about how much more it could take.
+ *
+ * Calls over the limit wait in a queue of at most {@code maxQueue}, for at most
+ * {@code maxWaitMillis}, and are handed their permit directly in FIFO or LIFO order.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_TERM_SMOOTHING = 0.2;
+    private static final double LONG_TERM_SMOOTHING = 0.02;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final QueueOrder queueOrder;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+    private volatile double limit;
+    private volatile int inFlight;
+    private double shortTermNanos = Double.NaN;
+    private double longTermNanos = Double.NaN;
+
+    AdaptiveConcurrencyLimiter(AdaptiveConcurrencyLimit annotation) {
+        this(annotation.initialLimit(), annotation.minLimit(), annotation.maxLimit(), annotation.tolerance(),
+                annotation.backoffRatio(), annotation.maxQueue(), annotation.maxWait(), annotation.queueOrder());
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, tolerance, backoffRatio, Integer.MAX_VALUE, -1, QueueOrder.FIFO);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio,
+                               int maxQueue, long maxWaitMillis, QueueOrder queueOrder) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= initialLimit <= maxLimit, got "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitNanos = maxWaitMillis < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.queueOrder = queueOrder;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Waits until a call may start and returns the number of calls in flight including it,
+     * which goes back to {@link #release}.
+     *
+     * @throws ConcurrencyLimitExceededException if the queue is full or the wait times out
+     */
+    int acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (waiters.isEmpty() && inFlight < getLimit()) {
+                return ++inFlight;
+            }
+            if (waiters.size() >= maxQueue) {
+                throw new ConcurrencyLimitExceededException(ConcurrencyLimitExceededException.Reason.QUEUE_FULL,
+                        "Concurrency limit of " + getLimit() + " reached and " + waiters.size() + " calls already waiting");
+            }
+            var waiter = new Waiter(lock.newCondition());
+            if (queueOrder == QueueOrder.LIFO) {
+                waiters.addFirst(waiter);
+            } else {
+                waiters.addLast(waiter);
+            }
+            return await(waiter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int await(Waiter waiter) throws InterruptedException {
+        long remaining = maxWaitNanos;
+        try {
+            while (waiter.inFlight == 0) {
+                if (remaining <= 0) {
+                    waiters.remove(waiter);
+                    throw new ConcurrencyLimitExceededException(ConcurrencyLimitExceededException.Reason.TIMEOUT,
+                            "No permit within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms under a concurrency limit of " + getLimit());
+                }
+                if (maxWaitNanos == Long.MAX_VALUE) {
+                    waiter.ready.await();
+                } else {
+                    remaining = waiter.ready.awaitNanos(remaining);
+                }
+            }
+            return waiter.inFlight;
+        } catch (InterruptedException ex) {
+            if (waiter.inFlight > 0) {
+                // granted just as we were interrupted; pass the permit on
+                inFlight--;
+                grantWaiters();
+            } else {
+                waiters.remove(waiter);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Ends a call that started with {@code inFlightAtStart} calls running and adjusts the limit.
+     */
+    void release(long latencyNanos, boolean failed, int inFlightAtStart) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (failed) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                onSuccess(latencyNanos, inFlightAtStart);
+            }
+            grantWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ends a call without adjusting the limit, for outcomes that say nothing about the method.
+     */
+    void releaseWithoutSample() {
+        lock.lock();
+        try {
+            inFlight--;
+            grantWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess(long latencyNanos, int inFlightAtStart) {
+        if (Double.isNaN(shortTermNanos)) {
+            shortTermNanos = latencyNanos;
+            longTermNanos = latencyNanos;
+            return;
+        }
+        shortTermNanos += SHORT_TERM_SMOOTHING * (latencyNanos - shortTermNanos);
+        longTermNanos += LONG_TERM_SMOOTHING * (shortTermNanos - longTermNanos);
+        if (longTermNanos > 2 * shortTermNanos) {
+            // latency has recovered well below the baseline; let the baseline catch up faster
+            longTermNanos *= 0.95;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longTermNanos / shortTermNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        if (inFlightAtStart < limit / 2) {
+            target = Math.min(target, limit);
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, limit + LIMIT_SMOOTHING * (target - limit)));
+    }
+
+    /**
+     * Hands free permits to the head of the queue, which holds the newest waiter under LIFO.
+     */
+    private void grantWaiters() {
+        while (inFlight < getLimit() && !waiters.isEmpty()) {
+            Waiter waiter = waiters.pollFirst();
+            waiter.inFlight = ++inFlight;
+            waiter.ready.signal();
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight;
+    }
+
+    int getQueued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Waiter {
+
+        private final Condition ready;
+        private int inFlight;
+
+        private Waiter(Condition ready) {
+            this.ready = ready;
+        }
+    }
+}
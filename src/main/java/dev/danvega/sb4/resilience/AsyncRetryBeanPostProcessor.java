@@ -0,0 +1,26 @@
+package dev.danvega.sb4.resilience;
+
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Proxies beans with {@link AsyncRetryable} methods, the way {@code @EnableResilientMethods}
+ * does for {@code @Retryable}.
+ */
+public class AsyncRetryBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor
+        implements DisposableBean {
+
+    private final AsyncRetryInterceptor interceptor = new AsyncRetryInterceptor();
+
+    public AsyncRetryBeanPostProcessor() {
+        this.advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, AsyncRetryable.class, true), interceptor);
+    }
+
+    @Override
+    public void destroy() {
+        interceptor.shutdown();
+    }
+}
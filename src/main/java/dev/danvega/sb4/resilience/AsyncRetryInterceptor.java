@@ -0,0 +1,120 @@
+package dev.danvega.sb4.resilience;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link AsyncRetryable}: runs the first attempt on the calling thread and schedules
+ * every retry on a single timer thread, which only hands the attempt over to a virtual thread.
+ */
+public class AsyncRetryInterceptor implements MethodInterceptor {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("async-retry").factory());
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null
+                ? ClassUtils.getUserClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        AsyncRetryable retryable = AnnotatedElementUtils.findMergedAnnotation(method, AsyncRetryable.class);
+        if (retryable == null) {
+            return invocation.proceed();
+        }
+        if (!method.getReturnType().isAssignableFrom(CompletableFuture.class)
+                || !(invocation instanceof ProxyMethodInvocation proxyInvocation)) {
+            throw new IllegalStateException("@AsyncRetryable requires a CompletableFuture return type: " + method);
+        }
+
+        var result = new CompletableFuture<Object>();
+        attempt(proxyInvocation, retryable, 1, result);
+        return result;
+    }
+
+    private void attempt(ProxyMethodInvocation invocation, AsyncRetryable retryable, int attempt,
+                         CompletableFuture<Object> result) {
+        if (result.isDone()) {
+            return; // cancelled by the caller
+        }
+        CompletionStage<?> stage;
+        try {
+            stage = (CompletionStage<?>) invocation.invocableClone().proceed();
+        } catch (Throwable ex) {
+            stage = CompletableFuture.failedFuture(ex);
+        }
+        if (stage == null) {
+            result.complete(null);
+            return;
+        }
+        stage.whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (attempt >= retryable.maxAttempts() || !isRetryable(retryable, cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            try {
+                scheduler.schedule(() -> Thread.ofVirtual().name("async-retry-attempt")
+                                .start(() -> attempt(invocation, retryable, attempt + 1, result)),
+                        delay(retryable, attempt), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                // shut down; the caller would otherwise wait forever
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * Whether a failure matches the {@code includes}, if any, and none of the {@code excludes}.
+     */
+    static boolean isRetryable(AsyncRetryable retryable, Throwable failure) {
+        for (Class<? extends Throwable> excluded : retryable.excludes()) {
+            if (excluded.isInstance(failure)) {
+                return false;
+            }
+        }
+        if (retryable.includes().length == 0) {
+            return true;
+        }
+        for (Class<? extends Throwable> included : retryable.includes()) {
+            if (included.isInstance(failure)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The delay before the retry that follows the given attempt, in milliseconds.
+     */
+    static long delay(AsyncRetryable retryable, int attempt) {
+        double delay = Math.min(retryable.maxDelay(), retryable.delay() * Math.pow(retryable.multiplier(), attempt - 1));
+        if (retryable.jitter() > 0) {
+            delay += ThreadLocalRandom.current().nextLong(-retryable.jitter(), retryable.jitter() + 1);
+        }
+        return Math.max(0, (long) delay);
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,54 @@
+package dev.danvega.sb4.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Like {@link org.springframework.resilience.annotation.Retryable}, for methods returning a
+ * {@link java.util.concurrent.CompletableFuture}. The caller gets a future back straight away,
+ * and the backoff between attempts is a timer rather than a sleeping thread, so thousands of
+ * calls can wait for their next attempt without holding a thread each.
+ *
+ * A failed attempt is one whose future completes exceptionally or whose method throws, and it
+ * is retried if the failure matches {@link #includes()} and none of {@link #excludes()}. The
+ * method should return its future without blocking; retries run it again on a virtual thread.
+ *
+ * @see AsyncRetryBeanPostProcessor
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AsyncRetryable {
+
+    /**
+     * Failures to retry; by default all.
+     */
+    Class<? extends Throwable>[] includes() default {};
+
+    /**
+     * Failures not to retry, even if they match {@link #includes()}.
+     */
+    Class<? extends Throwable>[] excludes() default {};
+
+    int maxAttempts() default 3;
+
+    /**
+     * Delay before the first retry, in milliseconds.
+     */
+    long delay() default 1000;
+
+    /**
+     * Factor applied to the delay after each retry.
+     */
+    double multiplier() default 1.0;
+
+    long maxDelay() default Long.MAX_VALUE;
+
+    /**
+     * Random spread added to or taken from each delay, in milliseconds.
+     */
+    long jitter() default 0;
+}
@@ -0,0 +1,23 @@
+package dev.danvega.sb4.resilience;
+
+/**
+ * Thrown instead of waiting when an {@link AdaptiveConcurrencyLimit} method's queue is full, or
+ * when a queued call has not got a permit within the maximum wait.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public enum Reason {
+        QUEUE_FULL, TIMEOUT
+    }
+
+    private final Reason reason;
+
+    public ConcurrencyLimitExceededException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -1,11 +1,12 @@
 package dev.danvega.sb4.resilience;
 
-import org.springframework.resilience.annotation.ConcurrencyLimit;
+import dev.danvega.sb4.resilience.AdaptiveConcurrencyLimit.QueueOrder;
 import org.springframework.resilience.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -19,12 +20,15 @@ public class DatabaseService {
 
     private final Random random = new Random();
     private final AtomicInteger attemptCounter = new AtomicInteger(0);
+    private final AtomicInteger heavyOperations = new AtomicInteger(0);
 
     /**
      * Demonstrates basic @Retryable functionality.
-     * This method will retry up to 3 times if it fails, with a 1-second delay between attempts.
+     * This method will retry up to 3 times if it fails, with a 1-second delay between attempts,
+     * as long as the shared "database" retry budget allows it.
      */
-    @Retryable(maxAttempts = 3, delay = 1000)
+    @RetryBudget("database")
+    @Retryable(maxAttempts = 3, delay = 1000, excludes = RetryBudgetExhaustedException.class)
     public String saveData(String data) {
         int attempt = attemptCounter.incrementAndGet();
         System.out.println("Attempting to save data '" + data + "' - Attempt: " + attempt + " at " + LocalDateTime.now());
@@ -41,12 +45,15 @@ public class DatabaseService {
     /**
      * Demonstrates @Retryable with exponential backoff.
      * Delays start at 500ms and double each time (500ms, 1000ms, 2000ms, 4000ms).
+     * Retries draw on the shared "database" retry budget.
      */
+    @RetryBudget("database")
     @Retryable(
         maxAttempts = 4,
         delay = 500,
         multiplier = 2.0,
-        maxDelay = 5000
+        maxDelay = 5000,
+        excludes = RetryBudgetExhaustedException.class
     )
     public String fetchData(String id) {
         System.out.println("Fetching data with id: " + id + " at " + LocalDateTime.now());
@@ -60,19 +67,61 @@ public class DatabaseService {
     }
 
     /**
-     * Demonstrates @ConcurrencyLimit.
-     * Only allows 2 concurrent executions of this method at a time.
+     * Demonstrates @AsyncRetryable, the non-blocking counterpart of saveData.
+     * The caller gets the future at once and the 1-second delays between attempts hold no thread.
      */
-    @ConcurrencyLimit(2)
+    @AsyncRetryable(maxAttempts = 3, delay = 1000, excludes = RetryBudgetExhaustedException.class)
+    public CompletableFuture<String> saveDataAsync(String data) {
+        System.out.println("Attempting to save data '" + data + "' asynchronously on " + Thread.currentThread() + " at " + LocalDateTime.now());
+
+        // Simulate random database failures (50% chance)
+        if (random.nextBoolean()) {
+            return CompletableFuture.failedFuture(new DatabaseException("Database connection failed - simulated error"));
+        }
+
+        return CompletableFuture.completedFuture("Data '" + data + "' saved successfully");
+    }
+
+    /**
+     * Demonstrates @AsyncRetryable with exponential backoff, the non-blocking counterpart of fetchData.
+     */
+    @AsyncRetryable(
+        maxAttempts = 4,
+        delay = 500,
+        multiplier = 2.0,
+        maxDelay = 5000,
+        excludes = RetryBudgetExhaustedException.class
+    )
+    public CompletableFuture<String> fetchDataAsync(String id) {
+        System.out.println("Fetching data asynchronously with id: " + id + " on " + Thread.currentThread() + " at " + LocalDateTime.now());
+
+        // 60% chance of failure to show retry behavior
+        if (random.nextDouble() < 0.6) {
+            return CompletableFuture.failedFuture(new DatabaseException("Database timeout - simulated error"));
+        }
+
+        return CompletableFuture.completedFuture("Data for id '" + id + "': Sample database record");
+    }
+
+    /**
+     * Demonstrates @AdaptiveConcurrencyLimit.
+     * Starts with 2 concurrent executions and raises the limit while latency holds. The simulated
+     * database slows down once more than 4 operations share it, which pulls the limit back.
+     * At most 8 callers wait, newest first, and none for more than 5 seconds.
+     */
+    @AdaptiveConcurrencyLimit(initialLimit = 2, maxLimit = 16, maxQueue = 8, maxWait = 5000, queueOrder = QueueOrder.LIFO)
     public String performHeavyOperation(String taskId) {
-        System.out.println("Starting heavy operation: " + taskId + " at " + LocalDateTime.now());
+        int running = heavyOperations.incrementAndGet();
+        System.out.println("Starting heavy operation: " + taskId + " (" + running + " running) at " + LocalDateTime.now());
 
         try {
-            // Simulate a long-running operation
-            Thread.sleep(2000);
+            // Simulate a long-running operation that degrades past 4 concurrent operations
+            Thread.sleep(2000L * Math.max(4, running) / 4);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new RuntimeException("Operation interrupted");
+        } finally {
+            heavyOperations.decrementAndGet();
         }
 
         System.out.println("Completed heavy operation: " + taskId + " at " + LocalDateTime.now());
@@ -80,11 +129,12 @@ public class DatabaseService {
     }
 
     /**
-     * Demonstrates combining @Retryable and @ConcurrencyLimit.
-     * This limits concurrent access AND retries on failure.
+     * Demonstrates combining @Retryable and @AdaptiveConcurrencyLimit.
+     * This limits concurrent access AND retries on failure; every failed attempt lowers the limit.
      */
-    @ConcurrencyLimit(1) // Only one at a time
-    @Retryable(maxAttempts = 2, delay = 1000) // Retry once if it fails
+    @AdaptiveConcurrencyLimit(initialLimit = 1, maxLimit = 4) // One at a time to start with
+    @RetryBudget("database") // Only retry while retries stay under 20% of successful calls
+    @Retryable(maxAttempts = 2, delay = 1000, excludes = RetryBudgetExhaustedException.class) // Retry once if it fails
     public String criticalOperation(String operationId) {
         System.out.println("Executing critical operation: " + operationId + " at " + LocalDateTime.now());
 
@@ -0,0 +1,179 @@
+package dev.danvega.sb4.resilience;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Drives load at a {@link DatabaseService} operation on virtual threads and reports what the
+ * resilience annotations made of it.
+ *
+ * Closed loop keeps {@code concurrency} callers busy back to back, so the load backs off as the
+ * operation slows down. Open loop starts calls at a fixed arrival rate whatever happens to the
+ * earlier ones, the way independent clients do, and measures each call from when it was due to
+ * start, so the latency of a stalled generator is not hidden (coordinated omission).
+ */
+@Component
+public class LoadGenerator {
+
+    static final Duration MAX_DURATION = Duration.ofMinutes(5);
+    static final int MAX_CONCURRENCY = 1_000;
+    static final double MAX_RATE = 10_000;
+
+    public enum Mode {
+        OPEN, CLOSED
+    }
+
+    public enum Operation {
+        SAVE(service -> service.saveData("load-test")),
+        FETCH(service -> service.fetchData("load-test")),
+        SAVE_ASYNC(service -> service.saveDataAsync("load-test").join()),
+        FETCH_ASYNC(service -> service.fetchDataAsync("load-test").join()),
+        HEAVY(service -> service.performHeavyOperation("load-test")),
+        CRITICAL(service -> service.criticalOperation("load-test")),
+        SIMPLE(service -> service.simpleOperation("load-test"));
+
+        private final Function<DatabaseService, Object> call;
+
+        Operation(Function<DatabaseService, Object> call) {
+            this.call = call;
+        }
+    }
+
+    private final DatabaseService databaseService;
+
+    public LoadGenerator(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+    }
+
+    /**
+     * Runs one load test and waits for the calls it started to finish.
+     *
+     * @param concurrency callers in closed loop; ignored in open loop
+     * @param ratePerSecond arrivals per second in open loop; ignored in closed loop
+     */
+    public Report run(Operation operation, Mode mode, Duration duration, int concurrency, double ratePerSecond)
+            throws InterruptedException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(MAX_DURATION) > 0) {
+            throw new IllegalArgumentException("Duration must be between 0 and " + MAX_DURATION.toSeconds() + " seconds");
+        }
+        if (mode == Mode.CLOSED && (concurrency < 1 || concurrency > MAX_CONCURRENCY)) {
+            throw new IllegalArgumentException("Concurrency must be between 1 and " + MAX_CONCURRENCY);
+        }
+        if (mode == Mode.OPEN && (ratePerSecond <= 0 || ratePerSecond > MAX_RATE)) {
+            throw new IllegalArgumentException("Rate must be between 0 and " + (int) MAX_RATE + " per second");
+        }
+
+        var run = new Run(operation);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long loadEnd;
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (mode == Mode.CLOSED) {
+                for (int i = 0; i < concurrency; i++) {
+                    callers.execute(() -> {
+                        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                            run.call(System.nanoTime());
+                        }
+                    });
+                }
+                loadEnd = end;
+            } else {
+                long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+                for (long due = start; due < end; due += intervalNanos) {
+                    LockSupport.parkNanos(due - System.nanoTime());
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    long intended = due;
+                    callers.execute(() -> run.call(intended));
+                }
+                // a stalled generator may start the last calls late
+                loadEnd = Math.max(end, System.nanoTime());
+            }
+        }
+        return run.report(mode, loadEnd - start, Math.max(0, System.nanoTime() - loadEnd));
+    }
+
+    /**
+     * Parses an operation name such as {@code fetch-async}.
+     */
+    static Operation operation(String name) {
+        return Operation.valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    static Mode mode(String name) {
+        return Mode.valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * The outcome of one load test. {@code elapsedSeconds} is the time load was applied and
+     * {@code throughputPerSecond} the calls made per second of it; {@code drainSeconds} is how
+     * long the calls still running at its end took to finish afterwards. Latencies cover failed
+     * calls too, since a fast rejection is also an answer the caller waited for.
+     */
+    public record Report(Operation operation, Mode mode, double elapsedSeconds, double drainSeconds,
+                         long requests, long successes,
+                         long failures, Map<String, Long> failuresByType, double throughputPerSecond,
+                         Latency latencyMillis) {
+    }
+
+    public record Latency(double p50, double p90, double p99, double max) {
+
+        static Latency of(Histogram micros) {
+            return new Latency(millis(micros.getValueAtPercentile(50)), millis(micros.getValueAtPercentile(90)),
+                    millis(micros.getValueAtPercentile(99)), millis(micros.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    private final class Run {
+
+        private final Operation operation;
+        private final Recorder recorder = new Recorder(3);
+        private final LongAdder successes = new LongAdder();
+        private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+        private Run(Operation operation) {
+            this.operation = operation;
+        }
+
+        void call(long intendedStartNanos) {
+            try {
+                operation.call.apply(databaseService);
+                successes.increment();
+            } catch (RuntimeException ex) {
+                Throwable failure = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                failures.computeIfAbsent(failure.getClass().getSimpleName(), type -> new LongAdder()).increment();
+            } finally {
+                recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos));
+            }
+        }
+
+        Report report(Mode mode, long elapsedNanos, long drainNanos) {
+            Histogram histogram = recorder.getIntervalHistogram();
+            Map<String, Long> failuresByType = new TreeMap<>();
+            failures.forEach((type, count) -> failuresByType.put(type, count.sum()));
+            long failed = failuresByType.values().stream().mapToLong(Long::longValue).sum();
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            return new Report(operation, mode, seconds, drainNanos / 1_000_000_000.0, histogram.getTotalCount(),
+                    successes.sum(), failed, failuresByType, histogram.getTotalCount() / seconds, Latency.of(histogram));
+        }
+    }
+}
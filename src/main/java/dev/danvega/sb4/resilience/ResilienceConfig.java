@@ -1,9 +1,28 @@
 package dev.danvega.sb4.resilience;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.resilience.annotation.EnableResilientMethods;
 
 @Configuration
 @EnableResilientMethods
 public class ResilienceConfig {
-}
\ No newline at end of file
+
+    @Bean
+    static AdaptiveConcurrencyLimitBeanPostProcessor adaptiveConcurrencyLimitBeanPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new AdaptiveConcurrencyLimitBeanPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    static RetryBudgetBeanPostProcessor retryBudgetBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RetryBudgetBeanPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    static AsyncRetryBeanPostProcessor asyncRetryBeanPostProcessor() {
+        return new AsyncRetryBeanPostProcessor();
+    }
+}
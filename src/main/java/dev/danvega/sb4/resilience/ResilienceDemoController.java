@@ -1,12 +1,13 @@
 package dev.danvega.sb4.resilience;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Simple controller to demonstrate Spring Boot 4's resilience features.
@@ -18,10 +19,11 @@ import java.util.concurrent.Executors;
 public class ResilienceDemoController {
 
     private final DatabaseService databaseService;
-    private final ExecutorService executor = Executors.newFixedThreadPool(10);
+    private final LoadGenerator loadGenerator;
 
-    public ResilienceDemoController(DatabaseService databaseService) {
+    public ResilienceDemoController(DatabaseService databaseService, LoadGenerator loadGenerator) {
         this.databaseService = databaseService;
+        this.loadGenerator = loadGenerator;
     }
 
     /**
@@ -38,6 +40,11 @@ public class ResilienceDemoController {
                 "status", "success",
                 "message", result
             );
+        } catch (RetryBudgetExhaustedException e) {
+            return Map.of(
+                "status", "rejected",
+                "message", e.getMessage()
+            );
         } catch (Exception e) {
             return Map.of(
                 "status", "failed",
@@ -60,6 +67,11 @@ public class ResilienceDemoController {
                 "status", "success",
                 "data", result
             );
+        } catch (RetryBudgetExhaustedException e) {
+            return Map.of(
+                "status", "rejected",
+                "message", e.getMessage()
+            );
         } catch (Exception e) {
             return Map.of(
                 "status", "failed",
@@ -69,8 +81,35 @@ public class ResilienceDemoController {
     }
 
     /**
-     * Demonstrates concurrency limiting.
-     * Make multiple requests quickly to see only 2 running at once.
+     * Demonstrates non-blocking retry.
+     * The request thread is released at once; the 1s delays between attempts run on a timer.
+     *
+     * Example: POST /api/resilience/save-async with body: "my important data"
+     */
+    @PostMapping("/save-async")
+    public CompletableFuture<Map<String, String>> saveDataAsync(@RequestBody String data) {
+        return databaseService.saveDataAsync(data).handle((result, failure) -> failure == null
+                ? Map.of("status", "success", "message", result)
+                : Map.of("status", "failed", "message", "Failed after all retry attempts: " + failure.getMessage()));
+    }
+
+    /**
+     * Demonstrates non-blocking retry with exponential backoff.
+     * Fire many of these at once: none of them holds a thread while waiting for the next attempt.
+     *
+     * Example: GET /api/resilience/fetch-async/123
+     */
+    @GetMapping("/fetch-async/{id}")
+    public CompletableFuture<Map<String, String>> fetchDataAsync(@PathVariable String id) {
+        return databaseService.fetchDataAsync(id).handle((result, failure) -> failure == null
+                ? Map.of("status", "success", "data", result)
+                : Map.of("status", "failed", "message", "Failed after all retry attempts: " + failure.getMessage()));
+    }
+
+    /**
+     * Demonstrates adaptive concurrency limiting.
+     * Make multiple requests quickly to see 2 running at once at first, then more while latency holds.
+     * Past 8 waiting, or after 5 seconds of waiting, requests are turned away with 503.
      *
      * Example: POST /api/resilience/heavy-task with body: "task-1"
      */
@@ -82,6 +121,8 @@ public class ResilienceDemoController {
                 "status", "success",
                 "message", result
             );
+        } catch (ConcurrencyLimitExceededException e) {
+            throw e; // answered with 503 below
         } catch (Exception e) {
             return Map.of(
                 "status", "failed",
@@ -92,7 +133,7 @@ public class ResilienceDemoController {
 
     /**
      * Demonstrates combining retry and concurrency limit.
-     * Only one request at a time, but will retry if it fails.
+     * One request at a time to start with, but will retry if it fails.
      *
      * Example: POST /api/resilience/critical with body: "critical-op-1"
      */
@@ -104,6 +145,11 @@ public class ResilienceDemoController {
                 "status", "success",
                 "message", result
             );
+        } catch (RetryBudgetExhaustedException e) {
+            return Map.of(
+                "status", "rejected",
+                "message", e.getMessage()
+            );
         } catch (Exception e) {
             return Map.of(
                 "status", "failed",
@@ -135,37 +181,20 @@ public class ResilienceDemoController {
     }
 
     /**
-     * Test concurrency limits by making multiple requests at once.
-     * This will show how the concurrency limit queues requests.
+     * Runs a load test against one DatabaseService operation and reports throughput, failures
+     * by type and latency percentiles. Closed loop keeps {@code concurrency} callers busy; open
+     * loop starts {@code ratePerSecond} calls a second however the earlier ones are doing.
+     *
+     * Example: POST /api/resilience/load-test?operation=heavy&mode=open&ratePerSecond=5&durationSeconds=20
      */
-    @PostMapping("/test-concurrency")
-    public Map<String, Object> testConcurrency(@RequestParam(defaultValue = "5") int numberOfTasks) {
-        System.out.println("\n=== Starting concurrency test with " + numberOfTasks + " tasks ===");
-
-        // Start multiple tasks at the same time
-        var futures = CompletableFuture.allOf(
-            java.util.stream.IntStream.range(1, numberOfTasks + 1)
-                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
-                    try {
-                        return databaseService.performHeavyOperation("concurrent-task-" + i);
-                    } catch (Exception e) {
-                        return "Task " + i + " failed: " + e.getMessage();
-                    }
-                }, executor))
-                .toArray(CompletableFuture[]::new)
-        );
-
-        try {
-            futures.get(); // Wait for all to complete
-        } catch (Exception e) {
-            // Handle execution exceptions
-        }
-
-        return Map.of(
-            "message", "Concurrency test completed",
-            "numberOfTasks", numberOfTasks,
-            "note", "Check console logs to see that only 2 tasks ran simultaneously"
-        );
+    @PostMapping("/load-test")
+    public LoadGenerator.Report loadTest(@RequestParam(defaultValue = "heavy") String operation,
+                                         @RequestParam(defaultValue = "closed") String mode,
+                                         @RequestParam(defaultValue = "10") long durationSeconds,
+                                         @RequestParam(defaultValue = "5") int concurrency,
+                                         @RequestParam(defaultValue = "10") double ratePerSecond) throws InterruptedException {
+        return loadGenerator.run(LoadGenerator.operation(operation), LoadGenerator.mode(mode),
+                Duration.ofSeconds(durationSeconds), concurrency, ratePerSecond);
     }
 
     /**
@@ -178,15 +207,42 @@ public class ResilienceDemoController {
             "endpoints", List.of(
                 "POST /api/resilience/save - Test basic retry (3 attempts, 1s delay)",
                 "GET /api/resilience/fetch/{id} - Test exponential backoff retry",
-                "POST /api/resilience/heavy-task - Test concurrency limit (max 2 concurrent)",
-                "POST /api/resilience/critical - Test retry + concurrency limit combined",
+                "POST /api/resilience/save-async - Test non-blocking retry (3 attempts, 1s delay on a timer)",
+                "GET /api/resilience/fetch-async/{id} - Test non-blocking exponential backoff retry",
+                "POST /api/resilience/heavy-task - Test adaptive concurrency limit (starts at 2 concurrent, 503 past 8 waiting or 5s)",
+                "POST /api/resilience/critical - Test retry + adaptive concurrency limit combined",
                 "POST /api/resilience/simple - No resilience (for comparison)",
-                "POST /api/resilience/test-concurrency - Test multiple concurrent requests"
+                "POST /api/resilience/load-test?operation=heavy&mode=closed&concurrency=5&durationSeconds=10 - Closed-loop load test",
+                "POST /api/resilience/load-test?operation=fetch&mode=open&ratePerSecond=50&durationSeconds=10 - Open-loop load test"
             ),
-            "tip", "Watch the console logs to see the resilience patterns in action!"
+            "tip", "Watch the console logs to see the resilience patterns in action!",
+            "retryBudget", "save, fetch and critical share the 'database' retry budget - see /actuator/metrics/resilience.retry.budget.tokens"
         );
     }
 
+    /**
+     * A concurrency-limited call turned away because its queue was full or its wait ran out.
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+            "status", "rejected",
+            "reason", ex.getReason().name(),
+            "message", ex.getMessage()
+        ));
+    }
+
+    /**
+     * A load test asked for an unknown operation or mode, or for more load than allowed.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of(
+            "status", "failed",
+            "message", String.valueOf(ex.getMessage())
+        ));
+    }
+
     @PostMapping("/reset")
     public Map<String, String> resetCounters() {
         databaseService.resetCounters();
@@ -0,0 +1,41 @@
+package dev.danvega.sb4.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caps the retries of a {@link org.springframework.resilience.annotation.Retryable} method at a
+ * fraction of its recent successful calls, so a degrading resource does not get its load
+ * multiplied by retries. Every success earns {@link #ratio()} of a retry, up to
+ * {@link #maxTokens()} saved; every retry spends one. A retry that finds nothing saved fails
+ * fast with {@link RetryBudgetExhaustedException}, which the {@code @Retryable} should exclude.
+ *
+ * Methods naming the same budget share it, and must then declare the same settings. The saved
+ * retries and the allowed and rejected ones are published as
+ * {@code resilience.retry.budget.tokens} and {@code resilience.retry.budget.retries}.
+ *
+ * @see RetryBudgetBeanPostProcessor
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryBudget {
+
+    /**
+     * Name of the budget; defaults to the method.
+     */
+    String value() default "";
+
+    /**
+     * Retries allowed per successful call; 0.2 keeps retries under 20% of successes.
+     */
+    double ratio() default 0.2;
+
+    /**
+     * Most retries that can be saved up, and the number available at startup.
+     */
+    int maxTokens() default 10;
+}
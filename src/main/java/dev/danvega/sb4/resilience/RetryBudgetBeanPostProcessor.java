@@ -0,0 +1,50 @@
+package dev.danvega.sb4.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+/**
+ * Proxies beans with {@link RetryBudget} methods. The budget is checked inside the
+ * {@code @Retryable} interceptor, so this has to be registered after
+ * {@code @EnableResilientMethods}; it then adds a second advisor in front of all the others to
+ * mark where each call begins. Budgets are created when the bean is, so their metrics are there
+ * before the first call.
+ */
+public class RetryBudgetBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private final RetryBudgetInterceptor interceptor;
+    private final Advisor callAdvisor;
+
+    public RetryBudgetBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.interceptor = new RetryBudgetInterceptor(meterRegistry);
+        var pointcut = new AnnotationMatchingPointcut(null, RetryBudget.class, true);
+        this.advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        this.callAdvisor = new DefaultPointcutAdvisor(pointcut, interceptor.callInterceptor());
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Object result = super.postProcessAfterInitialization(bean, beanName);
+        if (result instanceof Advised advised && Arrays.asList(advised.getAdvisors()).contains(advisor)
+                && !Arrays.asList(advised.getAdvisors()).contains(callAdvisor)) {
+            advised.addAdvisor(0, callAdvisor);
+            ReflectionUtils.doWithMethods(ClassUtils.getUserClass(bean), interceptor::budget,
+                    method -> AnnotatedElementUtils.hasAnnotation(method, RetryBudget.class));
+        }
+        return result;
+    }
+
+    RetryBudgetInterceptor getInterceptor() {
+        return interceptor;
+    }
+}
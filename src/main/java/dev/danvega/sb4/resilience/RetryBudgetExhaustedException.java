@@ -0,0 +1,20 @@
+package dev.danvega.sb4.resilience;
+
+/**
+ * Thrown instead of retrying when a {@link RetryBudget} has no retries left. The cause is the
+ * failure that would have been retried.
+ */
+public class RetryBudgetExhaustedException extends RuntimeException {
+
+    private final String budget;
+
+    public RetryBudgetExhaustedException(String budget, Throwable cause) {
+        super("Retry budget '" + budget + "' exhausted, not retrying"
+                + (cause != null ? ": " + cause.getMessage() : ""), cause);
+        this.budget = budget;
+    }
+
+    public String getBudget() {
+        return budget;
+    }
+}
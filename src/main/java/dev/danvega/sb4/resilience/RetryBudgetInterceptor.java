@@ -0,0 +1,134 @@
+package dev.danvega.sb4.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@link RetryBudget}. It sees every attempt of a call, since it sits inside the
+ * {@code @Retryable} interceptor, and tells retries from first attempts with the help of
+ * {@link #callInterceptor()}, which sits outside it and marks where each call begins.
+ */
+public class RetryBudgetInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<Call> currentCall = new ThreadLocal<>();
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final Map<Method, Budget> methods = new ConcurrentHashMap<>();
+
+    public RetryBudgetInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = targetMethod(invocation);
+        Budget budget = budget(method);
+        Call call = currentCall.get();
+        if (call != null && call.method.equals(method) && call.attempts++ > 0) {
+            if (!budget.bucket.tryRetry()) {
+                budget.rejected.increment();
+                throw new RetryBudgetExhaustedException(budget.name, call.lastFailure);
+            }
+            budget.allowed.increment();
+        }
+        try {
+            Object result = invocation.proceed();
+            budget.bucket.recordSuccess();
+            return result;
+        } catch (Throwable ex) {
+            if (call != null) {
+                call.lastFailure = ex;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Marks the start and end of a call around the {@code @Retryable} interceptor.
+     */
+    MethodInterceptor callInterceptor() {
+        return invocation -> {
+            Call previous = currentCall.get();
+            currentCall.set(new Call(targetMethod(invocation)));
+            try {
+                return invocation.proceed();
+            } finally {
+                currentCall.set(previous);
+            }
+        };
+    }
+
+    /**
+     * The budget of an annotated method, created with its metrics on first use.
+     */
+    Budget budget(Method method) {
+        return methods.computeIfAbsent(method, this::resolveBudget);
+    }
+
+    private Budget resolveBudget(Method method) {
+        RetryBudget annotation = AnnotatedElementUtils.findMergedAnnotation(method, RetryBudget.class);
+        if (annotation == null) {
+            throw new IllegalStateException("No @RetryBudget on " + method);
+        }
+        String name = annotation.value().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                : annotation.value();
+        Budget budget = budgets.computeIfAbsent(name, key -> createBudget(key, annotation));
+        if (!budget.bucket.hasSettings(annotation)) {
+            throw new IllegalStateException("Retry budget '" + name + "' is declared with different settings on " + method);
+        }
+        return budget;
+    }
+
+    private Budget createBudget(String name, RetryBudget annotation) {
+        var bucket = new RetryTokenBucket(annotation.ratio(), annotation.maxTokens());
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("resilience.retry.budget.tokens", bucket, RetryTokenBucket::getTokens)
+                .description("Retries saved up in the retry budget")
+                .tag("budget", name)
+                .register(registry);
+        return new Budget(name, bucket, retries(registry, name, "allowed"), retries(registry, name, "rejected"));
+    }
+
+    private static Counter retries(MeterRegistry registry, String budget, String outcome) {
+        return Counter.builder("resilience.retry.budget.retries")
+                .description("Retries allowed or rejected by the retry budget")
+                .tag("budget", budget)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Method targetMethod(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? ClassUtils.getUserClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        return AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+    }
+
+    record Budget(String name, RetryTokenBucket bucket, Counter allowed, Counter rejected) {
+    }
+
+    private static final class Call {
+
+        private final Method method;
+        private int attempts;
+        private Throwable lastFailure;
+
+        private Call(Method method) {
+            this.method = method;
+        }
+    }
+}
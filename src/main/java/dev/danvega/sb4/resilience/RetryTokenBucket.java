@@ -0,0 +1,43 @@
+package dev.danvega.sb4.resilience;
+
+/**
+ * The retries saved up for one {@link RetryBudget}.
+ */
+class RetryTokenBucket {
+
+    private final double ratio;
+    private final int maxTokens;
+    private double tokens;
+
+    RetryTokenBucket(double ratio, int maxTokens) {
+        if (ratio < 0 || maxTokens < 1) {
+            throw new IllegalArgumentException("Expected ratio >= 0 and maxTokens >= 1, got " + ratio + ", " + maxTokens);
+        }
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    synchronized void recordSuccess() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Spends one retry if there is one saved.
+     */
+    synchronized boolean tryRetry() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    synchronized double getTokens() {
+        return tokens;
+    }
+
+    boolean hasSettings(RetryBudget annotation) {
+        return ratio == annotation.ratio() && maxTokens == annotation.maxTokens();
+    }
+}
@@ -0,0 +1,140 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class HedgingInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlowFirstCallTodoService target;
+    private HedgingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = new SlowFirstCallTodoService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (interceptor != null) {
+            interceptor.destroy();
+        }
+    }
+
+    @Test
+    void getExchange_shouldBeAnsweredByHedgeWhenPrimaryIsSlow() {
+        TodoService todoService = hedged(1.0);
+
+        long start = System.nanoTime();
+        Todo todo = todoService.getTodoById(1L);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(todo.id()).isEqualTo(1L);
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(1));
+        assertThat(target.calls.get()).isEqualTo(2);
+        assertThat(meterRegistry.counter("todo.client.hedge.wins",
+                "method", "getTodoById", "winner", "hedge").count()).isEqualTo(1);
+    }
+
+    @Test
+    void getExchange_shouldSampleLatencyOfCancelledPrimary() throws NoSuchMethodException {
+        TodoService todoService = hedged(1.0);
+
+        todoService.getTodoById(1L);
+
+        HedgingInterceptor.LatencyWindow window = interceptor.latencyWindow(
+                TodoService.class.getMethod("getTodoById", Long.class));
+        await().atMost(Duration.ofSeconds(5)).until(() -> window.size() == 1);
+        assertThat(window.percentile(1.0, 1)).isGreaterThanOrEqualTo(Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void getExchange_shouldNotHedgeWhenBudgetIsExhausted() {
+        TodoService todoService = hedged(0.0);
+
+        todoService.getTodoById(1L);
+
+        assertThat(target.calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("todo.client.hedge.budget.exhausted",
+                "method", "getTodoById").count()).isEqualTo(1);
+    }
+
+    @Test
+    void nonGetExchange_shouldNeverBeHedged() {
+        TodoService todoService = hedged(1.0);
+
+        todoService.createTodo(new Todo(null, 1L, "New Todo", false));
+
+        assertThat(target.calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.find("todo.client.hedge.requests").counter()).isNull();
+    }
+
+    private TodoService hedged(double budget) {
+        var hedging = new TodoClientProperties.Hedging(true, Duration.ofMillis(50), 0.95,
+                Duration.ofMillis(20), budget);
+        var proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(TodoService.class);
+        interceptor = new HedgingInterceptor(hedging, meterRegistry);
+        proxyFactory.addAdvice(interceptor);
+        return (TodoService) proxyFactory.getProxy();
+    }
+
+    static class SlowFirstCallTodoService implements TodoService {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        private Todo respond(Long id) {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new Todo(id, 1L, "delectus aut autem", false);
+        }
+
+        @Override
+        public List<Todo> getAllTodos() {
+            return List.of(respond(1L));
+        }
+
+        @Override
+        public Todo getTodoById(Long id) {
+            return respond(id);
+        }
+
+        @Override
+        public List<Todo> getTodosByUserId(Long userId) {
+            return List.of(respond(1L));
+        }
+
+        @Override
+        public Todo createTodo(Todo todo) {
+            calls.incrementAndGet();
+            return new Todo(201L, todo.userId(), todo.title(), todo.completed());
+        }
+
+        @Override
+        public Todo updateTodo(Long id, Todo todo) {
+            calls.incrementAndGet();
+            return todo;
+        }
+
+        @Override
+        public void deleteTodo(Long id) {
+            calls.incrementAndGet();
+        }
+    }
+}
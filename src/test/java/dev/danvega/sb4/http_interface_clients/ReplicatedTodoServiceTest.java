@@ -0,0 +1,141 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicatedTodoServiceTest {
+
+    @Mock
+    private TodoService upstream;
+
+    private ReplicatedTodoService replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = replica(null);
+    }
+
+    private ReplicatedTodoService replica(Path snapshotFile) {
+        return new ReplicatedTodoService(upstream,
+                new TodoClientProperties.Replica(true, Duration.ofMinutes(5), snapshotFile, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void reads_shouldBeServedFromReplicaAfterRefresh() {
+        when(upstream.getAllTodos()).thenReturn(List.of(
+                new Todo(1L, 1L, "delectus aut autem", false),
+                new Todo(2L, 1L, "quis ut nam facilis et officia qui", false),
+                new Todo(21L, 2L, "suscipit repellat esse quibusdam", false)));
+
+        replica.refresh();
+
+        assertThat(replica.getTodosByUserId(1L)).extracting(Todo::id).containsExactly(1L, 2L);
+        assertThat(replica.getTodosByUserId(2L)).extracting(Todo::id).containsExactly(21L);
+        assertThat(replica.getTodosByUserId(999L)).isEmpty();
+        assertThat(replica.getTodoById(21L).title()).isEqualTo("suscipit repellat esse quibusdam");
+        assertThat(replica.getAllTodos()).hasSize(3);
+        verify(upstream, times(1)).getAllTodos();
+    }
+
+    @Test
+    void reads_shouldFallBackToUpstreamBeforeFirstRefresh() {
+        when(upstream.getTodosByUserId(1L)).thenReturn(List.of(new Todo(1L, 1L, "delectus aut autem", false)));
+
+        assertThat(replica.isLoaded()).isFalse();
+        assertThat(replica.getTodosByUserId(1L)).hasSize(1);
+        verify(upstream).getTodosByUserId(1L);
+    }
+
+    @Test
+    void writes_shouldBeAppliedToReplica() {
+        when(upstream.getAllTodos()).thenReturn(List.of(
+                new Todo(1L, 1L, "delectus aut autem", false),
+                new Todo(2L, 1L, "quis ut nam facilis et officia qui", false)));
+        var newTodo = new Todo(null, 1L, "New Todo", false);
+        when(upstream.createTodo(newTodo)).thenReturn(new Todo(201L, 1L, "New Todo", false));
+        var changed = new Todo(1L, 1L, "Updated Todo", true);
+        when(upstream.updateTodo(1L, changed)).thenReturn(changed);
+        replica.refresh();
+
+        replica.createTodo(newTodo);
+        replica.updateTodo(1L, changed);
+        replica.deleteTodo(2L);
+
+        assertThat(replica.getTodosByUserId(1L)).containsExactly(changed, new Todo(201L, 1L, "New Todo", false));
+        verify(upstream).deleteTodo(2L);
+    }
+
+    @Test
+    void writesDuringRefresh_shouldSurviveOlderSnapshot() {
+        var changed = new Todo(1L, 1L, "Updated Todo", true);
+        when(upstream.updateTodo(1L, changed)).thenReturn(changed);
+        when(upstream.getAllTodos())
+                .thenReturn(List.of(new Todo(1L, 1L, "delectus aut autem", false)))
+                .thenAnswer(invocation -> {
+                    // the write lands while the refresh is fetching its (now stale) snapshot
+                    replica.updateTodo(1L, changed);
+                    return List.of(new Todo(1L, 1L, "delectus aut autem", false));
+                });
+        replica.refresh();
+
+        replica.refresh();
+
+        assertThat(replica.getTodoById(1L)).isEqualTo(changed);
+    }
+
+    @Test
+    void persistedSnapshot_shouldWarmNewReplicaWithoutUpstreamCalls(@TempDir Path tempDir) {
+        Path snapshotFile = tempDir.resolve("todo-replica.bin");
+        when(upstream.getAllTodos()).thenReturn(List.of(
+                new Todo(1L, 1L, "delectus aut autem", false),
+                new Todo(21L, 2L, "suscipit repellat esse quibusdam", true)));
+        var previous = replica(snapshotFile);
+        previous.refresh();
+        previous.persist();
+
+        var restarted = replica(snapshotFile);
+
+        assertThat(restarted.loadPersisted()).isTrue();
+        assertThat(restarted.getTodosByUserId(2L))
+                .containsExactly(new Todo(21L, 2L, "suscipit repellat esse quibusdam", true));
+        verify(upstream, times(1)).getAllTodos();
+    }
+
+    @Test
+    void destroy_shouldPersistAfterSchedulerStops(@TempDir Path tempDir) throws Exception {
+        Path snapshotFile = tempDir.resolve("todo-replica.bin");
+        when(upstream.getAllTodos()).thenReturn(List.of(new Todo(1L, 1L, "delectus aut autem", false)));
+        var replica = replica(snapshotFile);
+        replica.refresh();
+
+        replica.destroy();
+
+        assertThat(new TodoSnapshotStore(snapshotFile).load()).get()
+                .extracting(TodoSnapshotStore.Loaded::todos)
+                .isEqualTo(List.of(new Todo(1L, 1L, "delectus aut autem", false)));
+    }
+
+    @Test
+    void missingSnapshotFile_shouldStartCold(@TempDir Path tempDir) {
+        var restarted = replica(tempDir.resolve("missing.bin"));
+
+        assertThat(restarted.loadPersisted()).isFalse();
+        assertThat(restarted.isLoaded()).isFalse();
+    }
+}
@@ -0,0 +1,49 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoClientInstrumentationTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoClientInstrumentation instrumentation;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        instrumentation = new TodoClientInstrumentation(meterRegistry, ObservationRegistry.NOOP,
+                new TodoClientProperties.Pool(10, 5));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        instrumentation.destroy();
+    }
+
+    @Test
+    void instrument_shouldBindPoolMetricsPerClientStyle() {
+        instrumentation.instrument(RestClient.builder(), TodoClientInstrumentation.DECLARATIVE);
+        instrumentation.instrument(RestClient.builder(), TodoClientInstrumentation.TRADITIONAL);
+
+        assertThat(meterRegistry.find("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "todo-declarative").gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.find("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "todo-traditional").gauge()).isNotNull();
+        assertThat(meterRegistry.find("http.client.pool.wait")
+                .tag("client.style", "declarative").timer()).isNotNull();
+    }
+
+    @Test
+    void instrument_shouldReuseHttpClientForSameStyle() {
+        instrumentation.instrument(RestClient.builder(), TodoClientInstrumentation.TRADITIONAL);
+        instrumentation.instrument(RestClient.builder(), TodoClientInstrumentation.TRADITIONAL);
+
+        assertThat(meterRegistry.find("http.client.pool.wait").timers()).hasSize(1);
+    }
+}
@@ -0,0 +1,71 @@
+package dev.danvega.sb4.http_interface_clients;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TodoSnapshotStoreTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void save_thenLoad_shouldRoundTripTodosIncludingNullFields() throws IOException {
+        var store = new TodoSnapshotStore(tempDir.resolve("todos.bin"));
+        var todos = List.of(
+                new Todo(1L, 1L, "delectus aut autem", false),
+                new Todo(2L, 1L, "ünïcödé title", true),
+                new Todo(null, null, null, null));
+        Instant savedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        store.save(todos, savedAt);
+        var loaded = store.load();
+
+        assertThat(loaded).isPresent();
+        assertThat(loaded.get().todos()).containsExactlyElementsOf(todos);
+        assertThat(loaded.get().savedAt()).isEqualTo(savedAt);
+    }
+
+    @Test
+    void load_shouldReturnEmptyWhenFileIsMissingOrForeign() throws IOException {
+        Path foreign = tempDir.resolve("foreign.bin");
+        Files.writeString(foreign, "not a todo snapshot");
+
+        assertThat(new TodoSnapshotStore(tempDir.resolve("missing.bin")).load()).isEmpty();
+        assertThat(new TodoSnapshotStore(foreign).load()).isEmpty();
+    }
+
+    @Test
+    void load_shouldRejectTruncatedFile() throws IOException {
+        Path file = tempDir.resolve("todos.bin");
+        new TodoSnapshotStore(file).save(List.of(new Todo(1L, 1L, "delectus aut autem", false)), Instant.now());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertThatThrownBy(() -> new TodoSnapshotStore(file).load()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void load_shouldRejectCountLargerThanFile() throws IOException {
+        Path file = tempDir.resolve("todos.bin");
+        new TodoSnapshotStore(file).save(List.of(new Todo(1L, 1L, "delectus aut autem", false)), Instant.now());
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES + 1 + Long.BYTES, Integer.MAX_VALUE);
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> new TodoSnapshotStore(file).load())
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("claims");
+    }
+}
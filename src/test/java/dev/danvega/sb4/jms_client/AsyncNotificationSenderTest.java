@@ -0,0 +1,132 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.CompletionListener;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncNotificationSenderTest {
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Queue queue;
+
+    @Mock
+    private MessageProducer messageProducer;
+
+    @Mock
+    private MessageConverter messageConverter;
+
+    @Mock
+    private Message message;
+
+    private AsyncNotificationSender sender;
+
+    @BeforeEach
+    void setUp() throws JMSException {
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).thenReturn(session);
+        when(session.createQueue("notification-queue")).thenReturn(queue);
+        when(session.createProducer(queue)).thenReturn(messageProducer);
+        when(messageConverter.toMessage(any(), any())).thenReturn(message);
+        sender = new AsyncNotificationSender(connectionFactory, messageConverter, "notification-queue",
+                1);
+    }
+
+    @Test
+    void shouldCompleteWhenBrokerAcknowledges() throws JMSException {
+        NotificationMessage notification = NotificationMessage.of("Async message", "info");
+
+        CompletableFuture<NotificationMessage> future = sender.send(notification, DeliveryMode.PERSISTENT, null);
+
+        assertThat(future).isNotDone();
+        assertThat(sender.inFlight()).isEqualTo(1);
+
+        completionListener().onCompletion(message);
+
+        assertThat(future).isCompletedWithValue(notification);
+        assertThat(sender.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldFailWhenInFlightLimitIsReached() {
+        sender.send(NotificationMessage.of("First", "info"), DeliveryMode.PERSISTENT, null);
+
+        CompletableFuture<NotificationMessage> second = sender.send(NotificationMessage.of("Second", "info"), DeliveryMode.PERSISTENT, null);
+
+        assertThat(second).isCompletedExceptionally();
+        assertThat(second.exceptionNow()).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void shouldReleaseSlotWhenBrokerRejects() throws JMSException {
+        CompletableFuture<NotificationMessage> first = sender.send(NotificationMessage.of("First", "info"), DeliveryMode.PERSISTENT, null);
+        completionListener().onException(message, new JMSException("rejected"));
+
+        CompletableFuture<NotificationMessage> second = sender.send(NotificationMessage.of("Second", "info"), DeliveryMode.PERSISTENT, null);
+
+        assertThat(first.exceptionNow()).isInstanceOf(JMSException.class);
+        assertThat(second).isNotDone();
+    }
+
+    @Test
+    void shouldReconnectAfterSendFailure() throws JMSException {
+        doThrow(new JMSException("connection lost"))
+                .doNothing()
+                .when(messageProducer).send(any(Message.class), any(CompletionListener.class));
+
+        CompletableFuture<NotificationMessage> failed = sender.send(NotificationMessage.of("First", "info"), DeliveryMode.PERSISTENT, null);
+        CompletableFuture<NotificationMessage> retried = sender.send(NotificationMessage.of("Second", "info"), DeliveryMode.PERSISTENT, null);
+
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(retried).isNotDone();
+        verify(connection).close();
+        verify(connectionFactory, times(2)).createConnection();
+    }
+
+    @Test
+    void shouldSendWithRequestedDeliveryModeAndGroup() throws JMSException {
+        sender.send(NotificationMessage.of("Presence", "presence"), DeliveryMode.NON_PERSISTENT, "user-42");
+
+        verify(messageProducer).setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        verify(message).setStringProperty("JMSXGroupID", "user-42");
+        verify(messageProducer).send(any(Message.class), any(CompletionListener.class));
+    }
+
+    private CompletionListener completionListener() throws JMSException {
+        ArgumentCaptor<CompletionListener> listener = ArgumentCaptor.forClass(CompletionListener.class);
+        verify(messageProducer).send(any(Message.class), listener.capture());
+        return listener.getValue();
+    }
+}
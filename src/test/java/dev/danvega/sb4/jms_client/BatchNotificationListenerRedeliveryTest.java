@@ -0,0 +1,105 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchNotificationListenerRedeliveryTest {
+
+    private static final NotificationMessage GOOD = NotificationMessage.of("good", "batch-test");
+    private static final NotificationMessage POISON = NotificationMessage.of("poison", "batch-test");
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private MessageConverter messageConverter;
+
+    @Mock
+    private NotificationConsumer notificationConsumer;
+
+    @Mock
+    private NotificationMetrics metrics;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private MessageConsumer consumer;
+
+    @Mock
+    private MessageProducer deadLetters;
+
+    @Mock
+    private Message good;
+
+    @Mock
+    private Message poison;
+
+    private BatchNotificationListener listener;
+
+    @BeforeEach
+    void setUp() throws JMSException {
+        listener = new BatchNotificationListener(connectionFactory, messageConverter, notificationConsumer, metrics,
+                new NotificationProperties.Batch(true, 10, Duration.ofMillis(100), 1, 3, "DLQ"));
+        when(consumer.receive(anyLong())).thenReturn(good, poison, null);
+        when(messageConverter.fromMessage(good)).thenReturn(GOOD);
+        when(messageConverter.fromMessage(poison)).thenReturn(POISON);
+        doThrow(new IllegalStateException("poison")).when(notificationConsumer).processBatch(List.of(GOOD, POISON));
+    }
+
+    @Test
+    void shouldRollBackFailedBatchBeforeMaxDeliveries() throws JMSException {
+        deliveries(poison, 2);
+
+        listener.consumeBatch(session, consumer, deadLetters);
+
+        verify(session).rollback();
+        verify(session, never()).commit();
+        verify(deadLetters, never()).send(poison);
+        verify(metrics).failed(GOOD);
+        verify(metrics).failed(POISON);
+    }
+
+    @Test
+    void shouldSplitBatchAndDeadLetterPoisonMessageAtMaxDeliveries() throws JMSException {
+        deliveries(poison, 3);
+        doNothing().when(notificationConsumer).processBatch(List.of(GOOD));
+        doThrow(new IllegalStateException("poison")).when(notificationConsumer).processBatch(List.of(POISON));
+
+        listener.consumeBatch(session, consumer, deadLetters);
+
+        verify(notificationConsumer).processBatch(List.of(GOOD));
+        verify(deadLetters).send(poison);
+        verify(deadLetters, never()).send(good);
+        verify(session).commit();
+        verify(session, never()).rollback();
+        verify(metrics).failed(POISON);
+        verify(metrics, never()).failed(GOOD);
+    }
+
+    private static void deliveries(Message message, int count) throws JMSException {
+        when(message.propertyExists("JMSXDeliveryCount")).thenReturn(true);
+        when(message.getIntProperty("JMSXDeliveryCount")).thenReturn(count);
+    }
+}
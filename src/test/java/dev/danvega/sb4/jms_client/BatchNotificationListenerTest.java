@@ -0,0 +1,58 @@
+package dev.danvega.sb4.jms_client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * With 200ms of processing per batch, 200 notifications take a few batches in batch mode,
+ * where one message per transaction on a single consumer would need 40s.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.artemis.mode=embedded",
+    "spring.artemis.embedded.enabled=true",
+    "spring.artemis.embedded.queues=notification-queue",
+    "app.jms.batch.enabled=true",
+    "app.jms.batch.max-messages=50",
+    "app.jms.batch.max-wait=100ms",
+    "app.jms.consumer.processing-time=200ms"
+})
+class BatchNotificationListenerTest {
+
+    private static final int MESSAGES = 200;
+
+    @Autowired
+    private NotificationProducer producer;
+
+    @Autowired
+    private NotificationConsumer consumer;
+
+    @Autowired
+    private JmsListenerEndpointRegistry listenerRegistry;
+
+    @Test
+    void shouldConsumeInBatchesAndCountEveryMessage() {
+        int initialCount = consumer.getMessageCount();
+
+        for (int i = 0; i < MESSAGES; i++) {
+            producer.sendNotification("Batch message " + i, "batch-test");
+        }
+
+        await().atMost(10, TimeUnit.SECONDS)
+               .untilAsserted(() -> assertThat(consumer.getMessageCount()).isEqualTo(initialCount + MESSAGES));
+    }
+
+    @Test
+    void singleMessageListenerShouldNotRunInBatchMode() {
+        assertThat(listenerRegistry.getListenerContainers())
+                .allSatisfy(container -> assertThat(container.isRunning()).isFalse());
+    }
+}
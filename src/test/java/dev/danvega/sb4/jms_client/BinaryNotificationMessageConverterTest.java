@@ -0,0 +1,114 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BinaryNotificationMessageConverterTest {
+
+    @Mock
+    private MessageConverter delegate;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private TextMessage textMessage;
+
+    @Test
+    void shouldRoundTripNotification() {
+        NotificationMessage notification = NotificationMessage.of("Your order has shipped", "shipping");
+
+        NotificationMessage decoded = BinaryNotificationMessageConverter.decode(
+                BinaryNotificationMessageConverter.encode(notification));
+
+        assertThat(decoded).isEqualTo(notification);
+    }
+
+    @Test
+    void shouldEncodeUuidIdAndTimestampCompactly() {
+        NotificationMessage notification = NotificationMessage.of("Hi", "info");
+
+        byte[] encoded = BinaryNotificationMessageConverter.encode(notification);
+
+        // version + flags + two longs + epoch second + nanos + "Hi" + "info"
+        assertThat(encoded).hasSize(2 + 16 + 12 + 3 + 5);
+    }
+
+    @Test
+    void shouldRoundTripNonUuidIdsNullFieldsAndMultiByteText() {
+        var withStringId = new NotificationMessage("order-42", "Größe: 42 – ✓", "info", LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6));
+        var upperCaseUuid = new NotificationMessage("123E4567-E89B-12D3-A456-426614174000", null, null, null);
+
+        assertThat(BinaryNotificationMessageConverter.decode(BinaryNotificationMessageConverter.encode(withStringId)))
+                .isEqualTo(withStringId);
+        assertThat(BinaryNotificationMessageConverter.decode(BinaryNotificationMessageConverter.encode(upperCaseUuid)))
+                .isEqualTo(upperCaseUuid);
+    }
+
+    @Test
+    void shouldRoundTripLongStrings() {
+        var notification = new NotificationMessage("id", "x".repeat(100_000), "bulk", LocalDateTime.now());
+
+        assertThat(BinaryNotificationMessageConverter.decode(BinaryNotificationMessageConverter.encode(notification)))
+                .isEqualTo(notification);
+    }
+
+    @Test
+    void shouldIgnoreFieldsAppendedByNewerWriters() {
+        NotificationMessage notification = NotificationMessage.of("Hello", "info");
+        byte[] encoded = BinaryNotificationMessageConverter.encode(notification);
+        byte[] withExtraField = Arrays.copyOf(encoded, encoded.length + 3);
+
+        assertThat(BinaryNotificationMessageConverter.decode(withExtraField)).isEqualTo(notification);
+    }
+
+    @Test
+    void shouldDefaultFieldsMissingFromOlderWriters() {
+        var notification = new NotificationMessage("id", "Hello", "info", null);
+        byte[] encoded = BinaryNotificationMessageConverter.encode(notification);
+        // drop the trailing type field: varint length 5 + "info"
+        byte[] withoutType = Arrays.copyOf(encoded, encoded.length - 5);
+
+        assertThat(BinaryNotificationMessageConverter.decode(withoutType))
+                .isEqualTo(new NotificationMessage("id", "Hello", null, null));
+    }
+
+    @Test
+    void shouldRejectUnknownVersionAndTruncatedPayloads() {
+        byte[] encoded = BinaryNotificationMessageConverter.encode(NotificationMessage.of("Hello", "info"));
+        byte[] newerVersion = encoded.clone();
+        newerVersion[0] = BinaryNotificationMessageConverter.DEFLATED_VERSION + 1;
+
+        assertThatThrownBy(() -> BinaryNotificationMessageConverter.decode(newerVersion))
+                .isInstanceOf(MessageConversionException.class)
+                .hasMessageContaining("version");
+        assertThatThrownBy(() -> BinaryNotificationMessageConverter.decode(Arrays.copyOf(encoded, 10)))
+                .isInstanceOf(MessageConversionException.class);
+    }
+
+    @Test
+    void shouldDelegateOtherPayloadsAndMessages() throws Exception {
+        var converter = new BinaryNotificationMessageConverter(delegate);
+        when(delegate.toMessage("plain text", session)).thenReturn(textMessage);
+        when(delegate.fromMessage(textMessage)).thenReturn("plain text");
+
+        assertThat(converter.toMessage("plain text", session)).isSameAs(textMessage);
+        assertThat(converter.fromMessage(textMessage)).isEqualTo("plain text");
+        verify(delegate).fromMessage(textMessage);
+    }
+}
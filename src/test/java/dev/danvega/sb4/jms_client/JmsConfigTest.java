@@ -0,0 +1,51 @@
+package dev.danvega.sb4.jms_client;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.JournalType;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JmsConfigTest {
+
+    @Test
+    void shouldApplyConfiguredJournalSettings() {
+        var configuration = new ConfigurationImpl();
+
+        JmsConfig.applyJournal(broker(Map.of(
+                "app.jms.broker.journal-type", "MAPPED",
+                "app.jms.broker.journal-buffer-size", "1MB",
+                "app.jms.broker.journal-buffer-timeout", "4ms",
+                "app.jms.broker.journal-sync-non-transactional", "false",
+                "app.jms.broker.journal-datasync", "false")), configuration);
+
+        assertThat(configuration.getJournalType()).isEqualTo(JournalType.MAPPED);
+        assertThat(configuration.getJournalBufferSize_NIO()).isEqualTo(1024 * 1024);
+        assertThat(configuration.getJournalBufferTimeout_NIO()).isEqualTo(4_000_000);
+        assertThat(configuration.isJournalSyncNonTransactional()).isFalse();
+        assertThat(configuration.isJournalDatasync()).isFalse();
+    }
+
+    @Test
+    void shouldKeepArtemisDefaultsForUnsetSettings() {
+        var defaults = new ConfigurationImpl();
+        var configuration = new ConfigurationImpl();
+
+        JmsConfig.applyJournal(broker(Map.of()), configuration);
+
+        assertThat(configuration.getJournalType()).isEqualTo(defaults.getJournalType());
+        assertThat(configuration.getJournalBufferSize_NIO()).isEqualTo(defaults.getJournalBufferSize_NIO());
+        assertThat(configuration.isJournalSyncTransactional()).isEqualTo(defaults.isJournalSyncTransactional());
+        assertThat(configuration.isJournalSyncNonTransactional()).isEqualTo(defaults.isJournalSyncNonTransactional());
+    }
+
+    private static NotificationProperties.Broker broker(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bindOrCreate("app.jms", NotificationProperties.class)
+                .broker();
+    }
+}
@@ -5,12 +5,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,11 +35,21 @@ class JmsControllerTest {
     @Mock
     private NotificationConsumer notificationConsumer;
 
+    @Mock
+    private NotificationMetrics notificationMetrics;
+
+    @Mock
+    private NotificationAdmission notificationAdmission;
+
+    @Mock
+    private NotificationProgressPublisher progressPublisher;
+
     private JmsController controller;
 
     @BeforeEach
     void setUp() {
-        controller = new JmsController(notificationProducer, notificationConsumer);
+        controller = new JmsController(notificationProducer, notificationConsumer, notificationMetrics, notificationAdmission,
+                progressPublisher);
     }
 
 
@@ -41,7 +64,66 @@ class JmsControllerTest {
         assertThat(response.getBody()).containsEntry("message", "Test message");
         assertThat(response.getBody()).containsEntry("type", "info");
 
-        verify(notificationProducer).sendNotification("Test message", "info");
+        verify(notificationProducer).sendNotification("Test message", "info", null);
+    }
+
+    @Test
+    void sendNotificationAsync_ShouldReturnResponseOnceAcknowledged() {
+        var request = new JmsController.NotificationRequest("Async message", "info");
+        NotificationMessage notification = NotificationMessage.of("Async message", "info");
+        when(notificationProducer.sendNotificationAsync("Async message", "info", null))
+                .thenReturn(CompletableFuture.completedFuture(notification));
+
+        ResponseEntity<Map<String, String>> response = controller.sendNotificationAsync(request).join();
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getBody()).containsEntry("id", notification.id());
+        assertThat(response.getBody()).containsEntry("status", "Message acknowledged by the broker");
+    }
+
+    @Test
+    void sendNotificationAsync_ShouldReturnServiceUnavailableWhenTooManyInFlight() {
+        var request = new JmsController.NotificationRequest("Async message", "info");
+        when(notificationProducer.sendNotificationAsync("Async message", "info", null))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("No in-flight slot")));
+
+        ResponseEntity<Map<String, String>> response = controller.sendNotificationAsync(request).join();
+
+        assertThat(response.getStatusCode().value()).isEqualTo(503);
+        assertThat(response.getBody()).containsEntry("status", "failed");
+    }
+
+    @Test
+    void sendNotificationBatch_ShouldReturnPerItemSummary() {
+        var requests = List.of(
+                new JmsController.NotificationRequest("First", "info", "order-42"),
+                new JmsController.NotificationRequest("Second", "info"));
+        when(notificationProducer.sendBatch(anyList(), anyList())).thenAnswer(invocation -> {
+            List<NotificationMessage> notifications = invocation.getArgument(0);
+            return BatchSendResult.of(List.of(
+                    BatchSendResult.ItemResult.accepted(0, notifications.get(0).id()),
+                    BatchSendResult.ItemResult.accepted(1, notifications.get(1).id())));
+        });
+
+        ResponseEntity<BatchSendResult> response = controller.sendNotificationBatch(requests);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getBody().accepted()).isEqualTo(2);
+        assertThat(response.getBody().failed()).isZero();
+        assertThat(response.getBody().items()).extracting(BatchSendResult.ItemResult::index).containsExactly(0, 1);
+        verify(notificationProducer).sendBatch(anyList(), eq(Arrays.asList("order-42", null)));
+    }
+
+    @Test
+    void sendNotificationBatch_ShouldReturnMultiStatusWhenSomeItemsFail() {
+        var requests = List.of(new JmsController.NotificationRequest("Only", "info"));
+        when(notificationProducer.sendBatch(anyList(), anyList())).thenReturn(BatchSendResult.of(List.of(
+                BatchSendResult.ItemResult.failed(0, "id-0", "broker unavailable"))));
+
+        ResponseEntity<BatchSendResult> response = controller.sendNotificationBatch(requests);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(207);
+        assertThat(response.getBody().failed()).isEqualTo(1);
     }
 
     @Test
@@ -54,9 +136,34 @@ class JmsControllerTest {
         assertThat(response.getBody()).containsEntry("status", "High priority message sent successfully using JmsClient");
         assertThat(response.getBody()).containsEntry("message", "Urgent message");
         assertThat(response.getBody()).containsEntry("type", "alert");
-        assertThat(response.getBody()).containsEntry("note", "Priority handling via basic JmsClient API");
+        assertThat(response.getBody()).containsEntry("note", "Sent with JMS priority, delivered ahead of queued notifications");
 
         verify(notificationProducer).sendHighPriorityNotification("Urgent message", "alert");
+        verify(notificationAdmission).admit(NotificationAdmission.Lane.URGENT);
+    }
+
+    @Test
+    void sendNotification_ShouldNotSendWhenAdmissionRejects() {
+        var request = new JmsController.NotificationRequest("Test message", "info");
+        doThrow(new NotificationAdmission.RejectedException(HttpStatus.TOO_MANY_REQUESTS, Duration.ofSeconds(12), "overloaded"))
+                .when(notificationAdmission).admit(NotificationAdmission.Lane.REGULAR);
+
+        assertThatThrownBy(() -> controller.sendNotification(request))
+                .isInstanceOf(NotificationAdmission.RejectedException.class);
+
+        verifyNoInteractions(notificationProducer);
+    }
+
+    @Test
+    void handleRejected_ShouldReturnStatusWithRetryAfter() {
+        var rejected = new NotificationAdmission.RejectedException(HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(12), "overloaded");
+
+        ResponseEntity<Map<String, String>> response = controller.handleRejected(rejected);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(503);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("12");
+        assertThat(response.getBody()).containsEntry("status", "rejected");
+        assertThat(response.getBody()).containsEntry("message", "overloaded");
     }
 
     @Test
@@ -70,7 +177,7 @@ class JmsControllerTest {
         assertThat(response.getBody()).containsEntry("message", "Delayed message");
         assertThat(response.getBody()).containsEntry("type", "reminder");
         assertThat(response.getBody()).containsEntry("delayInMillis", 5000L);
-        assertThat(response.getBody()).containsEntry("note", "Delay handling via basic JmsClient API");
+        assertThat(response.getBody()).containsEntry("note", "Held by the broker as a scheduled delivery until the delay has passed");
 
         verify(notificationProducer).sendDelayedNotification("Delayed message", "reminder", 5000L);
     }
@@ -78,14 +185,29 @@ class JmsControllerTest {
     @Test
     void getStatus_ShouldReturnSystemStatus() {
         when(notificationConsumer.getMessageCount()).thenReturn(42);
+        var queue = new NotificationMetrics.QueueStatus(7, 1, 2);
+        var types = Map.of("info", new NotificationMetrics.TypeStatus(40, 2, 3.5, 12.0, 1000.0, 1010.0));
+        when(notificationMetrics.status()).thenReturn(new NotificationMetrics.Status(queue, 40, 2, types));
 
         ResponseEntity<Map<String, Object>> response = controller.getStatus();
 
         assertThat(response.getStatusCode().value()).isEqualTo(200);
         assertThat(response.getBody()).containsEntry("totalProcessed", 42);
+        assertThat(response.getBody()).containsEntry("queue", queue);
+        assertThat(response.getBody()).containsEntry("consumed", 40L);
+        assertThat(response.getBody()).containsEntry("failed", 2L);
+        assertThat(response.getBody()).containsEntry("types", types);
         assertThat(response.getBody()).containsEntry("status", "Consumer is running");
         assertThat(response.getBody()).containsEntry("jmsClient", "Spring Boot 4 JmsClient in use");
 
         verify(notificationConsumer).getMessageCount();
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamProgress_ShouldSubscribeToSharedPublisher() {
+        SseEmitter emitter = new SseEmitter();
+        when(progressPublisher.subscribe()).thenReturn(emitter);
+
+        assertThat(controller.streamProgress()).isSameAs(emitter);
+    }
+}
@@ -1,12 +1,16 @@
 package dev.danvega.sb4.jms_client;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
@@ -20,11 +24,15 @@ class JmsIntegrationTest {
     @Autowired
     private NotificationConsumer consumer;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @DynamicPropertySource
     static void configureProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.artemis.mode", () -> "embedded");
         registry.add("spring.artemis.embedded.enabled", () -> "true");
         registry.add("spring.artemis.embedded.queues", () -> "notification-queue");
+        registry.add("app.jms.dedup.enabled", () -> "true");
     }
 
     @Test
@@ -77,4 +85,67 @@ class JmsIntegrationTest {
                    assertThat(consumer.getMessageCount()).isGreaterThanOrEqualTo(initialCount + messagesToSend);
                });
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSendBatchOfNotificationsInOneSession() {
+        int initialCount = consumer.getMessageCount();
+        List<NotificationMessage> notifications = IntStream.range(0, 20)
+                .mapToObj(i -> NotificationMessage.of("Batch message " + i, "bulk-test"))
+                .toList();
+
+        BatchSendResult result = producer.sendBatch(notifications);
+
+        assertThat(result.accepted()).isEqualTo(20);
+        assertThat(result.failed()).isZero();
+        await().atMost(15, TimeUnit.SECONDS)
+               .untilAsserted(() -> {
+                   assertThat(consumer.getMessageCount()).isGreaterThanOrEqualTo(initialCount + 20);
+               });
+    }
+
+    @Test
+    void shouldSendNotificationsAsynchronously() {
+        int initialCount = consumer.getMessageCount();
+
+        CompletableFuture<?>[] sends = IntStream.range(0, 20)
+                .mapToObj(i -> producer.sendNotificationAsync("Async message " + i, "async-test"))
+                .toArray(CompletableFuture[]::new);
+
+        assertThat(CompletableFuture.allOf(sends)).succeedsWithin(10, TimeUnit.SECONDS);
+        await().atMost(15, TimeUnit.SECONDS)
+               .untilAsserted(() -> {
+                   assertThat(consumer.getMessageCount()).isGreaterThanOrEqualTo(initialCount + 20);
+               });
+    }
+
+    @Test
+    void shouldPublishConsumerMetrics() {
+        producer.sendNotification("Metrics test message", "metrics-test");
+
+        await().atMost(10, TimeUnit.SECONDS)
+               .untilAsserted(() -> {
+                   assertThat(meterRegistry.find("notification.consumed").tag("type", "metrics-test").counter())
+                           .isNotNull()
+                           .satisfies(counter -> assertThat(counter.count()).isEqualTo(1));
+               });
+        assertThat(meterRegistry.get("notification.latency").tag("type", "metrics-test").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("notification.processing").tag("type", "metrics-test").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("notification.queue.depth").gauge().value()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void shouldDropRedeliveredDuplicate() {
+        NotificationMessage notification = NotificationMessage.of("Deduplicated message", "dedup-test");
+        producer.sendNotification(notification);
+        await().atMost(10, TimeUnit.SECONDS)
+               .until(() -> meterRegistry.find("notification.consumed").tag("type", "dedup-test").counter() != null);
+        double duplicatesBefore = meterRegistry.get("notification.dedup.duplicates").tag("source", "lru").counter().count();
+
+        producer.sendNotification(notification);
+
+        await().atMost(10, TimeUnit.SECONDS)
+               .untilAsserted(() -> assertThat(meterRegistry.get("notification.dedup.duplicates").tag("source", "lru")
+                       .counter().count()).isEqualTo(duplicatesBefore + 1));
+        assertThat(meterRegistry.get("notification.consumed").tag("type", "dedup-test").counter().count()).isEqualTo(1);
+    }
+}
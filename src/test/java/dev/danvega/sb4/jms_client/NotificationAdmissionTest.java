@@ -0,0 +1,120 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationAdmissionTest {
+
+    @Mock
+    private NotificationMetrics metrics;
+
+    private final AtomicLong nanoClock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationAdmission admission;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        admission = admission(true);
+    }
+
+    @Test
+    void shouldAdmitBelowWatermarks() {
+        when(metrics.queueDepth()).thenReturn(99L);
+
+        assertThatCode(() -> admission.admit(NotificationAdmission.Lane.REGULAR)).doesNotThrowAnyException();
+        assertThatCode(() -> admission.admit(NotificationAdmission.Lane.URGENT)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldShedRegularSendsBeforeUrgentOnes() {
+        when(metrics.queueDepth()).thenReturn(100L);
+
+        assertThatThrownBy(() -> admission.admit(NotificationAdmission.Lane.REGULAR))
+                .isInstanceOfSatisfying(NotificationAdmission.RejectedException.class, ex -> {
+                    assertThat(ex.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    // no consumption measured yet
+                    assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(60));
+                });
+        assertThatCode(() -> admission.admit(NotificationAdmission.Lane.URGENT)).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("notification.admission.rejected").tag("lane", "regular").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldShedEverythingAtUrgentWatermark() {
+        when(metrics.queueDepth()).thenReturn(400L);
+
+        assertThatThrownBy(() -> admission.admit(NotificationAdmission.Lane.URGENT))
+                .isInstanceOfSatisfying(NotificationAdmission.RejectedException.class,
+                        ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThatThrownBy(() -> admission.admit(NotificationAdmission.Lane.REGULAR))
+                .isInstanceOfSatisfying(NotificationAdmission.RejectedException.class,
+                        ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    void shouldKeepSheddingUntilBelowLowWatermark() {
+        when(metrics.queueDepth()).thenReturn(100L, 70L, 50L);
+
+        assertThatThrownBy(() -> admission.admit(NotificationAdmission.Lane.REGULAR));
+        nanoClock.addAndGet(Duration.ofMillis(200).toNanos());
+        assertThatThrownBy(() -> admission.admit(NotificationAdmission.Lane.REGULAR));
+        nanoClock.addAndGet(Duration.ofMillis(200).toNanos());
+        assertThatCode(() -> admission.admit(NotificationAdmission.Lane.REGULAR)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldShedRegularSendsWhenBacklogDrainsTooSlowly() {
+        when(metrics.queueDepth()).thenReturn(80L);
+        when(metrics.consumedTotal()).thenReturn(0L, 2L);
+
+        // first sample: depth 80 is below the watermark and no rate is known yet
+        assertThatCode(() -> admission.admit(NotificationAdmission.Lane.REGULAR)).doesNotThrowAnyException();
+        nanoClock.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        // 2 messages/s: 80 messages take 40s, more than the 30s max lag
+        assertThatThrownBy(() -> admission.admit(NotificationAdmission.Lane.REGULAR))
+                .isInstanceOfSatisfying(NotificationAdmission.RejectedException.class, ex -> {
+                    assertThat(ex.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    // back to 15s worth of backlog, 30 messages
+                    assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(25));
+                });
+        assertThat(meterRegistry.get("notification.admission.drain.rate").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldAdmitWhenBrokerIsUnavailable() {
+        when(metrics.queueDepth()).thenReturn(-1L);
+
+        assertThatCode(() -> admission.admit(NotificationAdmission.Lane.REGULAR)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldAdmitEverythingWhenDisabled() {
+        NotificationAdmission disabled = admission(false);
+
+        assertThatCode(() -> disabled.admit(NotificationAdmission.Lane.REGULAR)).doesNotThrowAnyException();
+        verifyNoInteractions(metrics);
+    }
+
+    private NotificationAdmission admission(boolean enabled) {
+        var properties = new NotificationProperties.Admission(enabled, 100, 50, 400, 200,
+                Duration.ofSeconds(30), Duration.ofMillis(200), Duration.ofSeconds(1), Duration.ofSeconds(60));
+        return new NotificationAdmission(properties, metrics, meterRegistry, nanoClock::get);
+    }
+}
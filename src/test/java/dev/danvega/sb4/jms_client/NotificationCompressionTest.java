@@ -0,0 +1,87 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Message;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.artemis.mode=embedded",
+    "spring.artemis.embedded.enabled=true",
+    "spring.artemis.embedded.queues=notification-queue",
+    "spring.jms.template.receive-timeout=2s",
+    "app.jms.compression.enabled=true",
+    "app.jms.compression.threshold=1KB"
+})
+class NotificationCompressionTest {
+
+    private static final String LARGE_MESSAGE = "Your order has shipped and will arrive on Tuesday. ".repeat(100);
+
+    @Autowired
+    private NotificationProducer producer;
+
+    @Autowired
+    private NotificationConsumer consumer;
+
+    @Autowired
+    private JmsTemplate jmsTemplate;
+
+    @Autowired
+    private JmsListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldConsumeCompressedAndUncompressedNotifications() {
+        int initialCount = consumer.getMessageCount();
+
+        producer.sendNotification(LARGE_MESSAGE, "compression-test");
+        producer.sendNotification("Small message", "compression-test");
+
+        await().atMost(10, TimeUnit.SECONDS)
+               .untilAsserted(() -> assertThat(consumer.getMessageCount()).isGreaterThanOrEqualTo(initialCount + 2));
+    }
+
+    @Test
+    void shouldCompressOnlyLargeNotifications() throws Exception {
+        listenerRegistry.stop();
+        try {
+            producer.sendNotification(LARGE_MESSAGE, "compression-test");
+            producer.sendNotification("Small message", "compression-test");
+
+            Message large = jmsTemplate.receive(NotificationProducer.NOTIFICATION_QUEUE);
+            Message small = jmsTemplate.receive(NotificationProducer.NOTIFICATION_QUEUE);
+
+            assertThat(large).isInstanceOf(BytesMessage.class);
+            assertThat(large.getStringProperty(BinaryNotificationMessageConverter.COMPRESSION_PROPERTY))
+                    .isEqualTo(NotificationCompressor.ALGORITHM);
+            assertThat(((BytesMessage) large).getBodyLength()).isLessThan(LARGE_MESSAGE.length() / 10);
+            // a version readers without compression support reject
+            assertThat(((BytesMessage) large).readByte()).isEqualTo(BinaryNotificationMessageConverter.DEFLATED_VERSION);
+            ((BytesMessage) large).reset();
+            var converter = new BinaryNotificationMessageConverter(jmsTemplate.getMessageConverter());
+            assertThat(((NotificationMessage) converter.fromMessage(large)).message()).isEqualTo(LARGE_MESSAGE);
+
+            // below the threshold the destination's usual format is kept
+            assertThat(small.getStringProperty(BinaryNotificationMessageConverter.COMPRESSION_PROPERTY)).isNull();
+            assertThat(small.getStringProperty(BinaryNotificationMessageConverter.FORMAT_PROPERTY)).isNull();
+            assertThat(((NotificationMessage) converter.fromMessage(small)).message()).isEqualTo("Small message");
+
+            assertThat(meterRegistry.get("notification.compression.ratio").summary().count()).isGreaterThanOrEqualTo(1);
+        } finally {
+            listenerRegistry.start();
+        }
+    }
+}
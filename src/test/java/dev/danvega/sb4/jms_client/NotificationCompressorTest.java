@@ -0,0 +1,69 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationCompressorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NotificationCompressor compressor = new NotificationCompressor(
+            new NotificationProperties.Compression(true, DataSize.ofKilobytes(1), 1), meterRegistry);
+
+    @Test
+    void shouldRoundTripTextAboveThreshold() throws DataFormatException {
+        String text = "Your order has shipped and will arrive on Tuesday – ✓ ".repeat(100);
+
+        byte[] compressed = compressor.compress(text.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(compressed).isNotNull();
+        assertThat(compressed.length).isLessThan(text.length() / 10);
+        assertThat(NotificationCompressor.decompress(compressed)).isEqualTo(text);
+        assertThat(meterRegistry.get("notification.compression.ratio").summary().max()).isGreaterThan(10);
+        assertThat(meterRegistry.get("notification.compression.time").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLeaveTextBelowThresholdAlone() {
+        assertThat(compressor.compress("Short message".getBytes(StandardCharsets.UTF_8))).isNull();
+        assertThat(compressor.compress(null)).isNull();
+        assertThat(meterRegistry.get("notification.compression.time").timer().count()).isZero();
+    }
+
+    @Test
+    void shouldNotCompressTextThatDoesNotShrink() {
+        byte[] random = new byte[4096];
+        new Random(42).nextBytes(random);
+
+        assertThat(compressor.compress(random)).isNull();
+        assertThat(meterRegistry.get("notification.compression.incompressible").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("notification.compression.ratio").summary().count()).isZero();
+    }
+
+    @Test
+    void shouldRejectTextInflatingBeyondLimit() throws DataFormatException {
+        String text = "x".repeat(10_000);
+        byte[] compressed = compressor.compress(text.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(NotificationCompressor.decompress(compressed, text.length())).isEqualTo(text);
+        assertThatThrownBy(() -> NotificationCompressor.decompress(compressed, text.length() - 1))
+                .isInstanceOf(DataFormatException.class)
+                .hasMessageContaining("more than");
+    }
+
+    @Test
+    void shouldRejectTruncatedInput() {
+        byte[] compressed = compressor.compress("x".repeat(10_000).getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> NotificationCompressor.decompress(Arrays.copyOf(compressed, compressed.length / 2)))
+                .isInstanceOf(DataFormatException.class);
+    }
+}
@@ -0,0 +1,138 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class NotificationDeduplicatorTest {
+
+    private final AtomicLong nanoClock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldDropNotificationOnlyAfterItWasProcessed() {
+        NotificationDeduplicator deduplicator = deduplicator(100, 1000);
+        NotificationMessage notification = NotificationMessage.of("Hello", "info");
+
+        assertThat(deduplicator.isDuplicate(notification)).isFalse();
+        // not processed yet, e.g. rolled back: the redelivery must go through
+        assertThat(deduplicator.isDuplicate(notification)).isFalse();
+
+        deduplicator.processed(notification);
+
+        assertThat(deduplicator.isDuplicate(notification)).isTrue();
+        assertThat(meterRegistry.get("notification.dedup.duplicates").tag("source", "lru").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCatchDuplicatesEvictedFromLruWithBloomFilter() {
+        NotificationDeduplicator deduplicator = deduplicator(10, 1000);
+        NotificationMessage first = NotificationMessage.of("First", "info");
+        deduplicator.processed(first);
+        for (int i = 0; i < 50; i++) {
+            deduplicator.processed(NotificationMessage.of("Filler " + i, "info"));
+        }
+
+        assertThat(deduplicator.lruSize()).isEqualTo(10);
+        assertThat(deduplicator.isDuplicate(first)).isTrue();
+        assertThat(meterRegistry.get("notification.dedup.duplicates").tag("source", "bloom").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForgetIdsAfterTwoWindows() {
+        NotificationDeduplicator deduplicator = deduplicator(1, 1000);
+        NotificationMessage old = NotificationMessage.of("Old", "info");
+        deduplicator.processed(old);
+        deduplicator.processed(NotificationMessage.of("Evicts old from the LRU", "info"));
+
+        nanoClock.addAndGet(Duration.ofMinutes(11).toNanos());
+        assertThat(deduplicator.isDuplicate(old)).isTrue();
+
+        nanoClock.addAndGet(Duration.ofMinutes(11).toNanos());
+        assertThat(deduplicator.isDuplicate(old)).isFalse();
+    }
+
+    @Test
+    void shouldStayNearConfiguredFalsePositiveRate() {
+        int expectedIds = 10_000;
+        NotificationDeduplicator deduplicator = deduplicator(10, expectedIds);
+        for (int i = 0; i < expectedIds; i++) {
+            deduplicator.processed(new NotificationMessage(UUID.randomUUID().toString(), "m", "info", null));
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (deduplicator.isDuplicate(new NotificationMessage(UUID.randomUUID().toString(), "m", "info", null))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(0.003);
+        assertThat(meterRegistry.get("notification.dedup.bloom.false.positive.rate").gauge().value())
+                .isBetween(0.0005, 0.002);
+    }
+
+    @Test
+    void shouldReportFalsePositiveRateOfBothGenerations() {
+        int expectedIds = 10_000;
+        NotificationDeduplicator deduplicator = deduplicator(10, expectedIds);
+        for (int i = 0; i < expectedIds; i++) {
+            deduplicator.processed(new NotificationMessage(UUID.randomUUID().toString(), "m", "info", null));
+        }
+        double full = deduplicator.falsePositiveRate();
+
+        nanoClock.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        // the full generation is now the previous one and still answers lookups
+        assertThat(deduplicator.falsePositiveRate()).isCloseTo(full, within(1e-9));
+
+        for (int i = 0; i < expectedIds; i++) {
+            deduplicator.processed(new NotificationMessage(UUID.randomUUID().toString(), "m", "info", null));
+        }
+        assertThat(deduplicator.falsePositiveRate()).isBetween(1.5 * full, 2.5 * full);
+    }
+
+    @Test
+    void shouldReportFixedMemoryFootprint() {
+        NotificationDeduplicator deduplicator = deduplicator(1000, 100_000);
+        double before = meterRegistry.get("notification.dedup.memory").gauge().value();
+        for (int i = 0; i < 5000; i++) {
+            deduplicator.processed(NotificationMessage.of("Message " + i, "info"));
+        }
+
+        double after = meterRegistry.get("notification.dedup.memory").gauge().value();
+
+        // two generations of ~1.44M bits each, plus at most 1000 LRU entries
+        assertThat(before).isBetween(350_000.0, 370_000.0);
+        assertThat(after - before).isEqualTo(1000.0 * NotificationDeduplicator.ESTIMATED_LRU_ENTRY_BYTES);
+    }
+
+    @Test
+    void shouldPassEverythingThroughWhenDisabled() {
+        var dedup = new NotificationProperties.Dedup(false, 100, 1000, 0.001, Duration.ofMinutes(10));
+        var deduplicator = new NotificationDeduplicator(dedup, meterRegistry, nanoClock::get);
+        NotificationMessage notification = NotificationMessage.of("Hello", "info");
+
+        deduplicator.processed(notification);
+
+        assertThat(deduplicator.isDuplicate(notification)).isFalse();
+    }
+
+    private NotificationDeduplicator deduplicator(int lruSize, int expectedIds) {
+        var dedup = new NotificationProperties.Dedup(true, lruSize, expectedIds, 0.001, Duration.ofMinutes(10));
+        return new NotificationDeduplicator(dedup, meterRegistry, nanoClock::get);
+    }
+}
@@ -0,0 +1,61 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+import jakarta.jms.Session;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationListenerContainerTest {
+
+    private final MessageConverter messageConverter = mock(MessageConverter.class);
+    private final Message message = mock(Message.class);
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationListenerContainer container;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        var factory = new StaticListableBeanFactory();
+        factory.addBean("notificationMetrics", new NotificationMetrics(meterRegistry,
+                factory.getBeanProvider(EmbeddedActiveMQ.class)));
+        container = new NotificationListenerContainer(messageConverter, factory.getBeanProvider(NotificationMetrics.class));
+    }
+
+    @Test
+    void shouldCountFailingNotificationByType() throws JMSException {
+        when(messageConverter.fromMessage(message)).thenReturn(NotificationMessage.of("Oops", "alert"));
+        container.setMessageListener((MessageListener) received -> {
+            throw new IllegalStateException("processing failed");
+        });
+
+        assertThatThrownBy(() -> container.invokeListener(mock(Session.class), message))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get("notification.failed").tag("type", "alert").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountUnconvertibleMessageAsUnknown() throws JMSException {
+        when(messageConverter.fromMessage(message)).thenThrow(new MessageConversionException("unreadable"));
+        container.setMessageListener((MessageListener) received -> {
+            throw new MessageConversionException("unreadable");
+        });
+
+        assertThatThrownBy(() -> container.invokeListener(mock(Session.class), message))
+                .isInstanceOf(MessageConversionException.class);
+
+        assertThat(meterRegistry.get("notification.failed").tag("type", "unknown").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,74 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class NotificationMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new NotificationMetrics(meterRegistry,
+                new StaticListableBeanFactory().getBeanProvider(EmbeddedActiveMQ.class));
+    }
+
+    @Test
+    void shouldRecordLatencyProcessingAndOutcomePerType() {
+        var notification = new NotificationMessage("id-1", "Hello", "info", LocalDateTime.now().minusSeconds(2));
+
+        metrics.received(notification);
+        metrics.processed(notification, Duration.ofMillis(30).toNanos());
+        metrics.failed(new NotificationMessage("id-2", "Oops", "alert", LocalDateTime.now()));
+
+        assertThat(meterRegistry.get("notification.latency").tag("type", "info").timer().totalTime(TimeUnit.SECONDS))
+                .isCloseTo(2.0, within(0.5));
+        assertThat(meterRegistry.get("notification.processing").tag("type", "info").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("notification.consumed").tag("type", "info").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("notification.failed").tag("type", "alert").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSummariseStatusPerType() {
+        var notification = NotificationMessage.of("Hello", "info");
+        metrics.received(notification);
+        metrics.processed(notification, Duration.ofMillis(30).toNanos());
+        metrics.processed(notification, Duration.ofMillis(30).toNanos());
+        metrics.failed(notification);
+
+        NotificationMetrics.Status status = metrics.status();
+
+        assertThat(status.consumed()).isEqualTo(2);
+        assertThat(status.failed()).isEqualTo(1);
+        assertThat(status.types()).containsOnlyKeys("info");
+        assertThat(status.types().get("info").processingP99Millis()).isCloseTo(30.0, within(5.0));
+    }
+
+    @Test
+    void shouldReportMissingBrokerAsUnknownQueueDepth() {
+        assertThat(metrics.status().queue().depth()).isEqualTo(-1);
+        assertThat(meterRegistry.get("notification.queue.depth").gauge().value()).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldCapNumberOfTypes() {
+        for (int i = 0; i < NotificationMetrics.MAX_TYPES + 10; i++) {
+            metrics.processed(NotificationMessage.of("Hello", "type-" + i), 1);
+        }
+
+        assertThat(metrics.status().types()).hasSize(NotificationMetrics.MAX_TYPES + 1);
+        assertThat(meterRegistry.get("notification.consumed").tag("type", "other").counter().count()).isEqualTo(10);
+    }
+}
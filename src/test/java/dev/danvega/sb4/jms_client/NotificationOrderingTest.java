@@ -0,0 +1,97 @@
+package dev.danvega.sb4.jms_client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Sends numbered notifications in message groups and records the order the consumer finishes
+ * them in. With 100ms of processing, one group of 40 notifications takes at least 4s on four
+ * consumers; spread over four groups the consumers work on them in parallel.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.artemis.mode=embedded",
+    "spring.artemis.embedded.enabled=true",
+    "spring.artemis.embedded.queues=notification-queue",
+    "spring.jms.listener.min-concurrency=4",
+    "spring.jms.listener.max-concurrency=4",
+    "app.jms.consumer.processing-time=100ms"
+})
+class NotificationOrderingTest {
+
+    private static final int GROUPS = 4;
+    private static final int MESSAGES = 40;
+
+    @Autowired
+    private NotificationProducer producer;
+
+    @MockitoSpyBean
+    private NotificationMetrics metrics;
+
+    private final Queue<NotificationMessage> processed = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void recordProcessingOrder() {
+        doAnswer(invocation -> {
+            processed.add(invocation.getArgument(0));
+            return invocation.callRealMethod();
+        }).when(metrics).processed(any(NotificationMessage.class), anyLong());
+    }
+
+    @Test
+    void shouldProcessGroupsInParallelAndInOrderWithinEachGroup() {
+        Duration serial = sendAndAwait("one-group", 1);
+        Duration parallel = sendAndAwait("four-groups", GROUPS);
+
+        double speedUp = (double) serial.toMillis() / parallel.toMillis();
+        assertThat(speedUp)
+                .as("speed-up of %d groups (%d ms) over 1 group (%d ms)", GROUPS, parallel.toMillis(), serial.toMillis())
+                .isGreaterThan(2.0);
+    }
+
+    /**
+     * Sends notification {@code i} in group {@code i % groups}, waits for all of them and checks
+     * each group was processed in sending order.
+     */
+    private Duration sendAndAwait(String type, int groups) {
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            producer.sendNotification(String.valueOf(i), type, type + "-" + (i % groups));
+        }
+
+        await().atMost(30, TimeUnit.SECONDS)
+               .untilAsserted(() -> assertThat(processed(type)).hasSize(MESSAGES));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Map<Integer, List<Integer>> byGroup = processed(type).stream()
+                .map(notification -> Integer.parseInt(notification.message()))
+                .collect(Collectors.groupingBy(sequence -> sequence % groups));
+        assertThat(byGroup).hasSize(groups);
+        byGroup.values().forEach(sequence -> assertThat(sequence).isSorted());
+        return elapsed;
+    }
+
+    private List<NotificationMessage> processed(String type) {
+        return processed.stream()
+                .filter(notification -> type.equals(notification.type()))
+                .toList();
+    }
+}
@@ -0,0 +1,146 @@
+package dev.danvega.sb4.jms_client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@code notification-queue} directly with the listener stopped, so what the test
+ * receives is the order the broker hands messages out in.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.artemis.mode=embedded",
+    "spring.artemis.embedded.enabled=true",
+    "spring.artemis.embedded.queues=notification-queue",
+    "spring.jms.template.receive-timeout=200ms"
+})
+class NotificationPriorityTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPriorityTest.class);
+
+    @Autowired
+    private NotificationProducer producer;
+
+    @Autowired
+    private JmsTemplate jmsTemplate;
+
+    @Autowired
+    private JmsListenerEndpointRegistry listenerRegistry;
+
+    @BeforeEach
+    void stopListenerAndDrainQueue() {
+        listenerRegistry.stop();
+        while (jmsTemplate.receive(NotificationProducer.NOTIFICATION_QUEUE) != null) {
+            // discard leftovers from earlier tests
+        }
+    }
+
+    @AfterEach
+    void restartListener() {
+        listenerRegistry.start();
+    }
+
+    @Test
+    void urgentNotificationsShouldOvertakeBacklog() {
+        for (int i = 0; i < 500; i++) {
+            producer.sendNotification("Backlog message " + i, "backlog");
+        }
+        for (int i = 0; i < 10; i++) {
+            producer.sendHighPriorityNotification("Urgent message " + i, "urgent");
+        }
+
+        List<NotificationMessage> firstReceived = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            firstReceived.add(receive());
+        }
+
+        assertThat(firstReceived).extracting(NotificationMessage::type).containsOnly("urgent");
+    }
+
+    @Test
+    void urgentNotificationsShouldKeepLowP99LatencyUnderLoad() throws InterruptedException {
+        int backlogMessages = 2000;
+        int urgentEvery = 40;
+        int urgentMessages = backlogMessages / urgentEvery;
+
+        Thread sender = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < backlogMessages; i++) {
+                producer.sendNotification("Load message " + i, "backlog");
+                if (i % urgentEvery == 0) {
+                    producer.sendHighPriorityNotification("Urgent message " + i, "urgent");
+                }
+            }
+        });
+
+        List<Long> urgentLatencies = new ArrayList<>();
+        List<Long> backlogLatencies = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (urgentLatencies.size() < urgentMessages && System.nanoTime() < deadline) {
+            NotificationMessage notification = receive();
+            if (notification == null) {
+                continue;
+            }
+            long latencyMillis = Duration.between(notification.timestamp(), LocalDateTime.now()).toMillis();
+            ("urgent".equals(notification.type()) ? urgentLatencies : backlogLatencies).add(latencyMillis);
+            // simulated handling, slower than the sender so a backlog builds up
+            Thread.sleep(1);
+        }
+        sender.join();
+
+        long urgentP99 = percentile(urgentLatencies, 0.99);
+        long backlogP99 = percentile(backlogLatencies, 0.99);
+        logger.info("Urgent latency p50={}ms p99={}ms, backlog latency p50={}ms p99={}ms ({} backlog received)",
+                percentile(urgentLatencies, 0.50), urgentP99,
+                percentile(backlogLatencies, 0.50), backlogP99, backlogLatencies.size());
+
+        assertThat(urgentLatencies).hasSize(urgentMessages);
+        assertThat(urgentP99).isLessThan(backlogP99);
+        assertThat(urgentP99).isLessThan(1000);
+    }
+
+    @Test
+    void delayedNotificationShouldBeHeldByBrokerUntilDue() {
+        long sentAt = System.nanoTime();
+        producer.sendDelayedNotification("Reminder", "reminder", 1500);
+
+        assertThat(receive()).isNull();
+
+        NotificationMessage delivered = null;
+        while (delivered == null && System.nanoTime() - sentAt < TimeUnit.SECONDS.toNanos(10)) {
+            delivered = receive();
+        }
+
+        assertThat(delivered).isNotNull();
+        assertThat(delivered.type()).isEqualTo("reminder");
+        assertThat(Duration.ofNanos(System.nanoTime() - sentAt)).isGreaterThanOrEqualTo(Duration.ofMillis(1500));
+    }
+
+    private NotificationMessage receive() {
+        return (NotificationMessage) jmsTemplate.receiveAndConvert(NotificationProducer.NOTIFICATION_QUEUE);
+    }
+
+    private static long percentile(List<Long> values, double percentile) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = values.stream().sorted().toList();
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0));
+    }
+}
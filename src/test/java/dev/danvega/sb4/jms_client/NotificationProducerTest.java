@@ -1,14 +1,28 @@
 package dev.danvega.sb4.jms_client;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.jms.ConnectionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
 import org.springframework.jms.core.JmsClient;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.destination.DestinationResolver;
+
+import java.nio.file.Path;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -21,11 +35,16 @@ class NotificationProducerTest {
     @Mock
     private JmsClient.OperationSpec destinationStep;
 
+    @Mock
+    private JmsTemplate jmsTemplate;
+
     private NotificationProducer producer;
 
     @BeforeEach
     void setUp() {
-        producer = new NotificationProducer(jmsClient);
+        NotificationProperties properties = new Binder(new MapConfigurationPropertySource())
+                .bindOrCreate("app.jms", NotificationProperties.class);
+        producer = new NotificationProducer(jmsClient, jmsTemplate, properties, new SimpleMeterRegistry());
     }
 
     @Test
@@ -52,23 +71,54 @@ class NotificationProducerTest {
     @Test
     void sendHighPriorityNotification_ShouldCallJmsClientCorrectly() {
         when(jmsClient.destination(anyString())).thenReturn(destinationStep);
+        when(destinationStep.withPriority(anyInt())).thenReturn(destinationStep);
 
         producer.sendHighPriorityNotification("Urgent message", "alert");
 
         verify(jmsClient).destination("notification-queue");
+        verify(destinationStep).withPriority(9);
         verify(destinationStep).send(any(NotificationMessage.class));
     }
 
     @Test
     void sendDelayedNotification_ShouldCallJmsClientCorrectly() {
         when(jmsClient.destination(anyString())).thenReturn(destinationStep);
+        when(destinationStep.withDeliveryDelay(anyLong())).thenReturn(destinationStep);
 
         producer.sendDelayedNotification("Delayed message", "reminder", 5000L);
 
         verify(jmsClient).destination("notification-queue");
+        verify(destinationStep).withDeliveryDelay(5000L);
         verify(destinationStep).send(any(NotificationMessage.class));
     }
 
+    @Test
+    void sendNotification_ShouldNotOverrideQualityOfService() {
+        when(jmsClient.destination(anyString())).thenReturn(destinationStep);
+
+        producer.sendNotification("Test message", "info");
+
+        verify(destinationStep, never()).withPriority(anyInt());
+        verify(destinationStep, never()).withDeliveryDelay(anyLong());
+        verify(destinationStep, never()).withDeliveryPersistent(anyBoolean());
+    }
+
+    @Test
+    void sendNotification_ShouldSendNonPersistentTypesWithoutPersistence() {
+        NotificationProperties properties = new Binder(new MapConfigurationPropertySource(
+                Map.of("app.jms.delivery.non-persistent-types", "presence")))
+                .bindOrCreate("app.jms", NotificationProperties.class);
+        producer = new NotificationProducer(jmsClient, jmsTemplate, properties, new SimpleMeterRegistry());
+        when(jmsClient.destination(anyString())).thenReturn(destinationStep);
+        when(destinationStep.withDeliveryPersistent(anyBoolean())).thenReturn(destinationStep);
+
+        producer.sendNotification("User is online", "presence");
+        producer.sendNotification("Test message", "info");
+
+        verify(destinationStep, times(1)).withDeliveryPersistent(false);
+        verify(destinationStep, times(2)).send(any(NotificationMessage.class));
+    }
+
     @Test
     void sendNotificationMessage_ShouldHaveCorrectStructure() {
         when(jmsClient.destination(anyString())).thenReturn(destinationStep);
@@ -84,4 +134,70 @@ class NotificationProducerTest {
         assertThat(capturedMessage.id()).isNotNull();
         assertThat(capturedMessage.timestamp()).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void sendNotification_ShouldUseCallerGroupKey() {
+        when(jmsClient.destination(anyString())).thenReturn(destinationStep);
+
+        producer.sendNotification("Order shipped", "info", "order-42");
+
+        verify(destinationStep).send(any(NotificationMessage.class), eq(Map.of("JMSXGroupID", "order-42")));
+    }
+
+    @Test
+    void sendNotification_ShouldGroupByTypeWhenMessageGroupsAreOn() {
+        NotificationProperties properties = new Binder(new MapConfigurationPropertySource(
+                Map.of("app.jms.producer.message-groups", "true")))
+                .bindOrCreate("app.jms", NotificationProperties.class);
+        producer = new NotificationProducer(jmsClient, jmsTemplate, properties, new SimpleMeterRegistry());
+        when(jmsClient.destination(anyString())).thenReturn(destinationStep);
+
+        producer.sendNotification("Test message", "info");
+
+        verify(destinationStep).send(any(NotificationMessage.class), eq(Map.of("JMSXGroupID", "info")));
+    }
+
+    @Test
+    void withMessageConverter_ShouldKeepTemplateSettings() {
+        var template = new JmsTemplate(mock(ConnectionFactory.class));
+        var destinationResolver = mock(DestinationResolver.class);
+        template.setDestinationResolver(destinationResolver);
+        template.setDefaultDestinationName("audit-queue");
+        template.setExplicitQosEnabled(true);
+        template.setPriority(7);
+        template.setTimeToLive(60_000);
+        template.setReceiveTimeout(2_000);
+        var messageConverter = mock(MessageConverter.class);
+
+        JmsTemplate copy = NotificationProducer.withMessageConverter(template, messageConverter);
+
+        assertThat(copy.getMessageConverter()).isSameAs(messageConverter);
+        assertThat(copy.getConnectionFactory()).isSameAs(template.getConnectionFactory());
+        assertThat(copy.getDestinationResolver()).isSameAs(destinationResolver);
+        assertThat(copy.getDefaultDestinationName()).isEqualTo("audit-queue");
+        assertThat(copy.isExplicitQosEnabled()).isTrue();
+        assertThat(copy.getPriority()).isEqualTo(7);
+        assertThat(copy.getTimeToLive()).isEqualTo(60_000);
+        assertThat(copy.getReceiveTimeout()).isEqualTo(2_000);
+    }
+
+    @Test
+    void sendNotification_WithSpool_ShouldAppendInsteadOfSending(@TempDir Path directory) {
+        NotificationProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "app.jms.spool.enabled", "true",
+                "app.jms.spool.file", directory.resolve("spool.bin").toString(),
+                "app.jms.spool.capacity", "1MB")))
+                .bindOrCreate("app.jms", NotificationProperties.class);
+        producer = new NotificationProducer(jmsClient, jmsTemplate, properties, new SimpleMeterRegistry());
+
+        try {
+            producer.sendNotification("Test message", "info");
+            producer.sendHighPriorityNotification("Urgent message", "alert");
+
+            assertThat(producer.spooled()).isEqualTo(2);
+            verifyNoInteractions(jmsClient);
+        } finally {
+            producer.destroy();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package dev.danvega.sb4.jms_client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationProgressPublisherTest {
+
+    @Mock
+    private NotificationMetrics metrics;
+
+    private final AtomicLong nanoClock = new AtomicLong();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private NotificationProgressPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new NotificationProgressPublisher(
+                new NotificationProperties.Progress(Duration.ofSeconds(1), Duration.ofMinutes(30)),
+                metrics, new SimpleMeterRegistry(), jsonMapper, nanoClock::get);
+    }
+
+    @Test
+    void shouldMeasureRateAndLagBetweenSamples() {
+        when(metrics.status()).thenReturn(status(100, 500), status(150, 400));
+
+        NotificationProgressPublisher.Progress first = publisher.sample();
+        nanoClock.addAndGet(Duration.ofSeconds(2).toNanos());
+        NotificationProgressPublisher.Progress second = publisher.sample();
+
+        assertThat(first.ratePerSecond()).isNull();
+        assertThat(second.processed()).isEqualTo(150);
+        assertThat(second.ratePerSecond()).isEqualTo(25.0);
+        assertThat(second.lagSeconds()).isEqualTo(16.0);
+        assertThat(second.latencyP99Millis()).isEqualTo(900.0);
+    }
+
+    @Test
+    void shouldSampleOnceForAllSubscribers() {
+        when(metrics.status()).thenReturn(status(100, 500));
+        publisher.subscribe();
+        publisher.subscribe();
+        publisher.subscribe();
+
+        publisher.publish();
+
+        assertThat(publisher.subscribers()).isEqualTo(3);
+        verify(metrics, times(1)).status();
+    }
+
+    @Test
+    void shouldNotSampleWithoutSubscribers() {
+        publisher.publish();
+
+        verifyNoInteractions(metrics);
+    }
+
+    @Test
+    void shouldRoundSampledValues() {
+        when(metrics.status()).thenReturn(new NotificationMetrics.Status(new NotificationMetrics.QueueStatus(5, 0, 2), 10, 1,
+                Map.of("info", new NotificationMetrics.TypeStatus(10, 1, 5, 12.345, 2, 20))));
+
+        assertThat(publisher.sample().latencyP99Millis()).isEqualTo(12.3);
+    }
+
+    @Test
+    void shouldWriteUnknownValuesAsNull() {
+        var progress = new NotificationProgressPublisher.Progress(Instant.parse("2025-01-01T12:00:00Z"),
+                10, 1, null, 5, 0, 2, null, 12.3);
+
+        assertThat(jsonMapper.writeValueAsString(progress)).isEqualTo("{\"timestamp\":\"2025-01-01T12:00:00Z\",\"processed\":10,\"failed\":1,"
+                + "\"ratePerSecond\":null,\"queueDepth\":5,\"scheduled\":0,\"delivering\":2,"
+                + "\"lagSeconds\":null,\"latencyP99Millis\":12.3}");
+    }
+
+    private static NotificationMetrics.Status status(long consumed, long depth) {
+        return new NotificationMetrics.Status(new NotificationMetrics.QueueStatus(depth, 0, 0), consumed, 0, Map.of(
+                "info", new NotificationMetrics.TypeStatus(consumed, 0, 10, 900, 5, 20),
+                "alert", new NotificationMetrics.TypeStatus(0, 0, Double.NaN, Double.NaN, Double.NaN, Double.NaN)));
+    }
+}
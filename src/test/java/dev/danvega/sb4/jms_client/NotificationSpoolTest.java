@@ -0,0 +1,141 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.DeliveryMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationSpoolTest {
+
+    private static final int CAPACITY = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadEntriesBackInAppendOrder() throws IOException {
+        try (NotificationSpool spool = new NotificationSpool(directory.resolve("spool.bin"), CAPACITY)) {
+            NotificationSpool.Entry first = entry("first", "order-42");
+            NotificationSpool.Entry second = new NotificationSpool.Entry(NotificationMessage.of("second", "alert"),
+                    null, DeliveryMode.NON_PERSISTENT, 9, 5000);
+            spool.append(first);
+            spool.append(second);
+
+            NotificationSpool.Batch batch = spool.peek(10);
+
+            assertThat(batch.entries()).containsExactly(first, second);
+            assertThat(spool.pending()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void shouldKeepEntriesUntilRemoved() throws IOException {
+        try (NotificationSpool spool = new NotificationSpool(directory.resolve("spool.bin"), CAPACITY)) {
+            for (int i = 0; i < 5; i++) {
+                spool.append(entry("message " + i, null));
+            }
+
+            spool.remove(spool.peek(2));
+
+            assertThat(spool.pending()).isEqualTo(3);
+            assertThat(spool.peek(1).entries().getFirst().notification().message()).isEqualTo("message 2");
+        }
+    }
+
+    @Test
+    void shouldRecoverUnforwardedEntriesAfterRestart() throws IOException {
+        Path file = directory.resolve("spool.bin");
+        try (NotificationSpool spool = new NotificationSpool(file, CAPACITY)) {
+            for (int i = 0; i < 5; i++) {
+                spool.append(entry("message " + i, "group"));
+            }
+            spool.remove(spool.peek(3));
+        }
+
+        try (NotificationSpool spool = new NotificationSpool(file, CAPACITY)) {
+            assertThat(spool.pending()).isEqualTo(2);
+            assertThat(spool.peek(10).entries())
+                    .extracting(e -> e.notification().message())
+                    .containsExactly("message 3", "message 4");
+        }
+    }
+
+    @Test
+    void shouldIgnoreTornRecordOnRecovery() throws IOException {
+        Path file = directory.resolve("spool.bin");
+        int tornRecord;
+        try (NotificationSpool spool = new NotificationSpool(file, CAPACITY)) {
+            spool.append(entry("complete", null));
+            tornRecord = NotificationSpool.HEADER_BYTES + spool.sizeInBytes();
+            spool.append(entry("torn", null));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            // flip a byte of the second record's body, as if the write never finished
+            raf.seek(tornRecord + 8);
+            int value = raf.read();
+            raf.seek(tornRecord + 8);
+            raf.write(value ^ 0xFF);
+        }
+
+        try (NotificationSpool spool = new NotificationSpool(file, CAPACITY)) {
+            assertThat(spool.peek(10).entries())
+                    .extracting(e -> e.notification().message())
+                    .containsExactly("complete");
+        }
+    }
+
+    @Test
+    void shouldRewindWhenDrained() throws IOException {
+        try (NotificationSpool spool = new NotificationSpool(directory.resolve("spool.bin"), CAPACITY)) {
+            spool.append(entry("message", null));
+
+            spool.remove(spool.peek(10));
+
+            assertThat(spool.pending()).isZero();
+            assertThat(spool.sizeInBytes()).isZero();
+            assertThat(spool.peek(10).isEmpty()).isTrue();
+        }
+    }
+
+    @Test
+    void shouldRefuseEntriesWhenFullAndReuseSpaceOnceForwarded() throws IOException {
+        try (NotificationSpool spool = new NotificationSpool(directory.resolve("spool.bin"), CAPACITY)) {
+            int appended = 0;
+            while (spool.append(entry("message " + appended, null))) {
+                appended++;
+            }
+            assertThat(appended).isPositive();
+            assertThat(spool.pending()).isEqualTo(appended);
+
+            // forwarding most of the spool frees the front, and the rest moves there
+            spool.remove(spool.peek(appended - 2));
+
+            assertThat(spool.append(entry("after compaction", null))).isTrue();
+            assertThat(spool.peek(10).entries())
+                    .extracting(e -> e.notification().message())
+                    .containsExactly("message " + (appended - 2), "message " + (appended - 1), "after compaction");
+        }
+    }
+
+    @Test
+    void shouldRejectFileThatIsNotASpool() throws IOException {
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThatThrownBy(() -> new NotificationSpool(file, CAPACITY))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a version 1 notification spool");
+    }
+
+    private static NotificationSpool.Entry entry(String message, String groupId) {
+        return new NotificationSpool.Entry(NotificationMessage.of(message, "info"), groupId,
+                DeliveryMode.PERSISTENT, -1, 0);
+    }
+}
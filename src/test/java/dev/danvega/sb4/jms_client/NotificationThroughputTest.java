@@ -0,0 +1,53 @@
+package dev.danvega.sb4.jms_client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Verifies that the notification listener scales out against the embedded Artemis broker.
+ * With 500ms of processing per message a single consumer needs 20s for 40 messages.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.artemis.mode=embedded",
+    "spring.artemis.embedded.enabled=true",
+    "spring.artemis.embedded.queues=notification-queue",
+    "spring.jms.listener.min-concurrency=1",
+    "spring.jms.listener.max-concurrency=20",
+    "app.jms.consumer.processing-time=500ms"
+})
+class NotificationThroughputTest {
+
+    private static final int MESSAGES = 40;
+
+    @Autowired
+    private NotificationProducer producer;
+
+    @Autowired
+    private NotificationConsumer consumer;
+
+    @Test
+    void shouldProcessBacklogConcurrently() {
+        int initialCount = consumer.getMessageCount();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < MESSAGES; i++) {
+            producer.sendNotification("Throughput message " + i, "throughput-test");
+        }
+
+        await().atMost(10, TimeUnit.SECONDS)
+               .untilAsserted(() -> assertThat(consumer.getMessageCount()).isGreaterThanOrEqualTo(initialCount + MESSAGES));
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        double throughput = MESSAGES / (elapsed.toMillis() / 1000.0);
+        assertThat(throughput).as("messages per second over %d ms", elapsed.toMillis()).isGreaterThan(4.0);
+    }
+}
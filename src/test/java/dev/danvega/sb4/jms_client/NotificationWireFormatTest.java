@@ -0,0 +1,69 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Message;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.artemis.mode=embedded",
+    "spring.artemis.embedded.enabled=true",
+    "spring.artemis.embedded.queues=notification-queue",
+    "spring.jms.template.receive-timeout=2s",
+    "app.jms.wire-format.binary-destinations=notification-queue"
+})
+class NotificationWireFormatTest {
+
+    @Autowired
+    private NotificationProducer producer;
+
+    @Autowired
+    private NotificationConsumer consumer;
+
+    @Autowired
+    private JmsTemplate jmsTemplate;
+
+    @Autowired
+    private JmsListenerEndpointRegistry listenerRegistry;
+
+    @Test
+    void shouldConsumeBinaryNotifications() {
+        int initialCount = consumer.getMessageCount();
+
+        producer.sendNotification("Binary message", "binary-test");
+        producer.sendHighPriorityNotification("Urgent binary message", "binary-test");
+
+        await().atMost(10, TimeUnit.SECONDS)
+               .untilAsserted(() -> assertThat(consumer.getMessageCount()).isGreaterThanOrEqualTo(initialCount + 2));
+    }
+
+    @Test
+    void shouldSendNotificationsAsBytesMessages() throws Exception {
+        listenerRegistry.stop();
+        try {
+            producer.sendNotification("Raw message", "binary-test");
+
+            Message message = jmsTemplate.receive(NotificationProducer.NOTIFICATION_QUEUE);
+
+            assertThat(message).isInstanceOf(BytesMessage.class);
+            assertThat(message.getStringProperty(BinaryNotificationMessageConverter.FORMAT_PROPERTY))
+                    .isEqualTo(BinaryNotificationMessageConverter.FORMAT);
+            NotificationMessage notification = (NotificationMessage) new BinaryNotificationMessageConverter(null)
+                    .fromMessage(message);
+            assertThat(notification.message()).isEqualTo("Raw message");
+            assertThat(notification.type()).isEqualTo("binary-test");
+        } finally {
+            listenerRegistry.start();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package dev.danvega.sb4.jms_client;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpoolForwarderTest {
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Queue queue;
+
+    @Mock
+    private MessageProducer messageProducer;
+
+    @Mock
+    private MessageConverter messageConverter;
+
+    @Mock
+    private Message message;
+
+    @TempDir
+    Path directory;
+
+    private NotificationSpool spool;
+    private SpoolForwarder forwarder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        spool = new NotificationSpool(directory.resolve("spool.bin"), 4096);
+        forwarder = new SpoolForwarder(spool, connectionFactory, messageConverter, "notification-queue",
+                2, Duration.ofMillis(10), 3);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        forwarder.close();
+        spool.close();
+    }
+
+    @Test
+    void shouldSendBatchInOneTransactionAndThenRemoveIt() throws JMSException {
+        spool.append(new NotificationSpool.Entry(NotificationMessage.of("first", "order"), "order-42",
+                DeliveryMode.PERSISTENT, -1, 0));
+        spool.append(new NotificationSpool.Entry(NotificationMessage.of("second", "alert"), null,
+                DeliveryMode.NON_PERSISTENT, 9, 5000));
+        spool.append(new NotificationSpool.Entry(NotificationMessage.of("third", "info"), null,
+                DeliveryMode.PERSISTENT, -1, 0));
+
+        connectToBroker();
+
+        assertThat(forwarder.forwardOnce()).isTrue();
+
+        InOrder inOrder = inOrder(message, messageProducer, session);
+        inOrder.verify(message).setStringProperty("JMSXGroupID", "order-42");
+        inOrder.verify(messageProducer).setDeliveryDelay(0);
+        inOrder.verify(messageProducer).send(message, DeliveryMode.PERSISTENT, Message.DEFAULT_PRIORITY,
+                Message.DEFAULT_TIME_TO_LIVE);
+        inOrder.verify(messageProducer).setDeliveryDelay(5000);
+        inOrder.verify(messageProducer).send(message, DeliveryMode.NON_PERSISTENT, 9, Message.DEFAULT_TIME_TO_LIVE);
+        inOrder.verify(session).commit();
+        assertThat(spool.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepBatchInSpoolWhenSendFails() throws JMSException {
+        spool.append(new NotificationSpool.Entry(NotificationMessage.of("first", "info"), null,
+                DeliveryMode.PERSISTENT, -1, 0));
+        connectToBroker();
+        doThrow(new JMSException("Broker unavailable"))
+                .when(messageProducer).send(any(Message.class), anyInt(), anyInt(), anyLong());
+
+        assertThatThrownBy(forwarder::forwardOnce).isInstanceOf(JMSException.class);
+
+        verify(session).rollback();
+        verify(session, never()).commit();
+        assertThat(spool.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotDropBatchWhileBrokerIsUnavailable() throws JMSException {
+        spool.append(new NotificationSpool.Entry(NotificationMessage.of("first", "info"), null,
+                DeliveryMode.PERSISTENT, -1, 0));
+        connectToBroker();
+        doThrow(new JMSException("Broker unavailable"))
+                .when(messageProducer).send(any(Message.class), anyInt(), anyInt(), anyLong());
+
+        for (int attempt = 0; attempt < 10; attempt++) {
+            assertThatThrownBy(forwarder::forwardOnce).isInstanceOf(JMSException.class);
+        }
+
+        assertThat(spool.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldIsolateAndDropEntryThatKeepsFailing() throws JMSException {
+        spool.append(new NotificationSpool.Entry(NotificationMessage.of("good", "info"), null,
+                DeliveryMode.PERSISTENT, -1, 0));
+        spool.append(new NotificationSpool.Entry(NotificationMessage.of("poison", "info"), null,
+                DeliveryMode.PERSISTENT, -1, 0));
+        spool.append(new NotificationSpool.Entry(NotificationMessage.of("behind", "info"), null,
+                DeliveryMode.PERSISTENT, -1, 0));
+        openSession();
+        when(messageConverter.toMessage(any(), any())).thenAnswer(invocation -> {
+            NotificationMessage notification = invocation.getArgument(0);
+            if (notification.message().equals("poison")) {
+                throw new MessageConversionException("Cannot convert " + notification.id());
+            }
+            return message;
+        });
+
+        // the batch of two fails, then its entries go one at a time
+        assertThatThrownBy(forwarder::forwardOnce).isInstanceOf(MessageConversionException.class);
+        assertThat(forwarder.forwardOnce()).isTrue();
+        assertThat(spool.pending()).isEqualTo(2);
+
+        assertThatThrownBy(forwarder::forwardOnce).isInstanceOf(MessageConversionException.class);
+        assertThatThrownBy(forwarder::forwardOnce).isInstanceOf(MessageConversionException.class);
+        assertThat(forwarder.forwardOnce()).isTrue();
+        assertThat(spool.pending()).isEqualTo(1);
+
+        assertThat(forwarder.forwardOnce()).isTrue();
+        assertThat(spool.pending()).isZero();
+    }
+
+    @Test
+    void shouldReportEmptySpool() throws JMSException {
+        assertThat(forwarder.forwardOnce()).isFalse();
+    }
+
+    private void connectToBroker() throws JMSException {
+        openSession();
+        when(messageConverter.toMessage(any(), any())).thenReturn(message);
+    }
+
+    private void openSession() throws JMSException {
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(true, Session.SESSION_TRANSACTED)).thenReturn(session);
+        when(session.createQueue("notification-queue")).thenReturn(queue);
+        when(session.createProducer(queue)).thenReturn(messageProducer);
+    }
+}
@@ -0,0 +1,42 @@
+package dev.danvega.sb4.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitBeanPostProcessorTest {
+
+    @Test
+    void shouldCreateLimitersOfAlreadyProxiedBean() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        var postProcessor = new AdaptiveConcurrencyLimitBeanPostProcessor(beanFactory.getBeanProvider(MeterRegistry.class));
+
+        // as @EnableResilientMethods would have proxied it for @Retryable
+        var factory = new ProxyFactory(new LimitedService());
+        factory.setProxyTargetClass(true);
+        factory.addAdvice((MethodInterceptor) invocation -> invocation.proceed());
+        Object proxy = factory.getProxy();
+
+        Object result = postProcessor.postProcessAfterInitialization(proxy, "limitedService");
+
+        assertThat(result).isSameAs(proxy);
+        assertThat(((Advised) result).getAdvisors()).hasSize(2);
+        assertThat(meterRegistry.find("resilience.concurrency.limit").tag("method", "LimitedService.call").gauge())
+                .isNotNull();
+    }
+
+    static class LimitedService {
+
+        @AdaptiveConcurrencyLimit(initialLimit = 2)
+        public void call() {
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package dev.danvega.sb4.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class AdaptiveConcurrencyLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AdaptiveConcurrencyLimitInterceptor interceptor;
+    private LimitedService service;
+
+    @BeforeEach
+    void setUp() {
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        interceptor = new AdaptiveConcurrencyLimitInterceptor(beanFactory.getBeanProvider(MeterRegistry.class));
+
+        var factory = new ProxyFactory(new LimitedService(release));
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(interceptor);
+        service = (LimitedService) factory.getProxy();
+    }
+
+    @Test
+    void shouldRecordWaitOfTimedOutCalls() throws Exception {
+        var holder = CompletableFuture.runAsync(service::call);
+        await().until(() -> interceptor.limiter(LimitedService.class.getMethod("call")).getInFlight() == 1);
+
+        assertThatThrownBy(service::call)
+                .isInstanceOfSatisfying(ConcurrencyLimitExceededException.class,
+                        ex -> assertThat(ex.getReason()).isEqualTo(ConcurrencyLimitExceededException.Reason.TIMEOUT));
+
+        Timer waitTime = meterRegistry.get("resilience.concurrency.wait").tag("method", "LimitedService.call").timer();
+        assertThat(waitTime.count()).isEqualTo(2);
+        assertThat(waitTime.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+        assertThat(meterRegistry.get("resilience.concurrency.rejected").tag("reason", "timeout").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldNotLowerLimitWhenRetryBudgetIsExhausted() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = interceptor.limiter(LimitedService.class.getMethod("budgeted"));
+
+        assertThatThrownBy(service::budgeted).isInstanceOf(RetryBudgetExhaustedException.class);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    static class LimitedService {
+
+        private final CountDownLatch release;
+
+        LimitedService(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @AdaptiveConcurrencyLimit(initialLimit = 1, minLimit = 1, maxLimit = 1, maxWait = 50)
+        public void call() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @AdaptiveConcurrencyLimit(initialLimit = 4, maxLimit = 8)
+        public void budgeted() {
+            throw new RetryBudgetExhaustedException("budget", new DatabaseService.DatabaseException("failed"));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package dev.danvega.sb4.resilience;
+
+import dev.danvega.sb4.resilience.AdaptiveConcurrencyLimit.QueueOrder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long LATENCY = Duration.ofMillis(10).toNanos();
+
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void shouldGrowWhileSaturatedAndLatencyHolds() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter(4, 1, 64, 1.5, 0.9);
+
+        saturate(limiter, 50, LATENCY);
+
+        assertThat(limiter.getLimit()).isGreaterThan(4).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    void shouldShrinkWhenLatencyRises() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter(4, 1, 64, 1.5, 0.9);
+        saturate(limiter, 50, LATENCY);
+        int grown = limiter.getLimit();
+
+        saturate(limiter, 20, 4 * LATENCY);
+
+        assertThat(limiter.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void shouldBackOffOnErrorsDownToMinimum() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 2, 64, 1.5, 0.9);
+
+        int inFlight = limiter.acquire();
+        limiter.release(LATENCY, true, inFlight);
+        assertThat(limiter.getLimit()).isEqualTo(9);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.release(LATENCY, true, limiter.acquire());
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotGrowWhenCallersDoNotUseThePermits() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter(8, 1, 64, 1.5, 0.9);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.release(LATENCY, false, limiter.acquire());
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldWaitForPermitAtLimit() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5, 0.9);
+        int inFlight = limiter.acquire();
+
+        var waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThatThrownBy(() -> waiting.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        limiter.release(LATENCY, false, inFlight);
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5, 0.9, 1, -1, QueueOrder.FIFO);
+        limiter.acquire();
+        acquireAsync(limiter);
+        await().until(() -> limiter.getQueued() == 1);
+
+        assertThatThrownBy(limiter::acquire)
+                .isInstanceOfSatisfying(ConcurrencyLimitExceededException.class,
+                        ex -> assertThat(ex.getReason()).isEqualTo(ConcurrencyLimitExceededException.Reason.QUEUE_FULL));
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxWait() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5, 0.9, 10, 50, QueueOrder.FIFO);
+        limiter.acquire();
+
+        assertThatThrownBy(() -> acquireAsync(limiter).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOfSatisfying(ConcurrencyLimitExceededException.class,
+                        ex -> assertThat(ex.getReason()).isEqualTo(ConcurrencyLimitExceededException.Reason.TIMEOUT));
+        assertThat(limiter.getQueued()).isZero();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeOldestWaiterFirstUnderFifo() throws Exception {
+        assertThat(nextServed(QueueOrder.FIFO)).isEqualTo("first");
+    }
+
+    @Test
+    void shouldServeNewestWaiterFirstUnderLifo() throws Exception {
+        assertThat(nextServed(QueueOrder.LIFO)).isEqualTo("second");
+    }
+
+    @Test
+    void shouldRejectInconsistentBounds() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(8, 1, 4, 1.5, 0.9))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Queues two callers behind a full limit of one and returns which of them gets the permit.
+     */
+    private String nextServed(QueueOrder order) throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5, 0.9, 10, -1, order);
+        int inFlight = limiter.acquire();
+        var first = acquireAsync(limiter).thenApply(ignored -> "first");
+        await().until(() -> limiter.getQueued() == 1);
+        var second = acquireAsync(limiter).thenApply(ignored -> "second");
+        await().until(() -> limiter.getQueued() == 2);
+
+        limiter.release(LATENCY, false, inFlight);
+
+        String served = (String) CompletableFuture.anyOf(first, second).get(5, TimeUnit.SECONDS);
+        assertThat(limiter.getQueued()).isEqualTo(1);
+        return served;
+    }
+
+    private CompletableFuture<Integer> acquireAsync(AdaptiveConcurrencyLimiter limiter) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }, callers);
+    }
+
+    /**
+     * Completes {@code samples} calls that each started with the whole limit in use.
+     */
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, int samples, long latencyNanos)
+            throws InterruptedException {
+        for (int i = 0; i < samples; i++) {
+            limiter.acquire();
+            limiter.release(latencyNanos, false, limiter.getLimit());
+        }
+    }
+}
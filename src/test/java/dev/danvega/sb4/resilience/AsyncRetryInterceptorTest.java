@@ -0,0 +1,138 @@
+package dev.danvega.sb4.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncRetryInterceptorTest {
+
+    private final AsyncRetryInterceptor interceptor = new AsyncRetryInterceptor();
+    private FlakyService target;
+    private FlakyService service;
+
+    @BeforeEach
+    void setUp() {
+        target = new FlakyService();
+        var factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(interceptor);
+        service = (FlakyService) factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        interceptor.shutdown();
+    }
+
+    @Test
+    void shouldRetryUntilSuccess() throws Exception {
+        target.failures.set(2);
+
+        assertThat(service.call().get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThat(target.attempts).hasValue(3);
+    }
+
+    @Test
+    void shouldFailWithLastCauseAfterMaxAttempts() {
+        target.failures.set(10);
+
+        assertThatThrownBy(() -> service.call().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DatabaseService.DatabaseException.class)
+                .hasMessageContaining("failure 3");
+        assertThat(target.attempts).hasValue(3);
+    }
+
+    @Test
+    void shouldTreatThrownExceptionAsFailedAttempt() throws Exception {
+        target.failures.set(1);
+
+        assertThat(service.callThrowing().get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThat(target.attempts).hasValue(2);
+    }
+
+    @Test
+    void shouldReturnWithoutWaitingForBackoff() {
+        target.failures.set(1);
+
+        CompletableFuture<String> result = service.callSlowly();
+
+        assertThat(result).isNotDone();
+        assertThat(target.attempts).hasValue(1);
+        result.cancel(false);
+    }
+
+    @Test
+    void shouldNotRetryExcludedFailure() {
+        target.failures.set(10);
+
+        assertThatThrownBy(() -> service.callExcluding().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DatabaseService.DatabaseException.class);
+        assertThat(target.attempts).hasValue(1);
+    }
+
+    @Test
+    void shouldFailInsteadOfHangingOnceShutDown() {
+        target.failures.set(10);
+        interceptor.shutdown();
+
+        assertThatThrownBy(() -> service.call().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DatabaseService.DatabaseException.class);
+        assertThat(target.attempts).hasValue(1);
+    }
+
+    @Test
+    void shouldGrowDelayUpToMaximum() throws NoSuchMethodException {
+        AsyncRetryable retryable = DatabaseService.class.getMethod("fetchDataAsync", String.class)
+                .getAnnotation(AsyncRetryable.class);
+
+        assertThat(AsyncRetryInterceptor.delay(retryable, 1)).isEqualTo(500);
+        assertThat(AsyncRetryInterceptor.delay(retryable, 2)).isEqualTo(1000);
+        assertThat(AsyncRetryInterceptor.delay(retryable, 3)).isEqualTo(2000);
+        assertThat(AsyncRetryInterceptor.delay(retryable, 5)).isEqualTo(5000);
+    }
+
+    static class FlakyService {
+
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        @AsyncRetryable(maxAttempts = 3, delay = 10)
+        public CompletableFuture<String> call() {
+            int attempt = attempts.incrementAndGet();
+            return failures.getAndDecrement() > 0
+                    ? CompletableFuture.failedFuture(new DatabaseService.DatabaseException("failure " + attempt))
+                    : CompletableFuture.completedFuture("ok");
+        }
+
+        @AsyncRetryable(maxAttempts = 3, delay = 10)
+        public CompletableFuture<String> callThrowing() {
+            attempts.incrementAndGet();
+            if (failures.getAndDecrement() > 0) {
+                throw new DatabaseService.DatabaseException("thrown");
+            }
+            return CompletableFuture.completedFuture("ok");
+        }
+
+        @AsyncRetryable(maxAttempts = 3, delay = 10, excludes = DatabaseService.DatabaseException.class)
+        public CompletableFuture<String> callExcluding() {
+            return call();
+        }
+
+        @AsyncRetryable(maxAttempts = 3, delay = 60_000)
+        public CompletableFuture<String> callSlowly() {
+            return call();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,6 +24,9 @@ class DatabaseServiceTest {
     @Autowired
     private DatabaseService databaseService;
 
+    @Autowired
+    private RetryBudgetBeanPostProcessor retryBudgetBeanPostProcessor;
+
     @BeforeEach
     void setUp() {
         databaseService.resetCounters();
@@ -80,6 +84,33 @@ class DatabaseServiceTest {
         assertThat(result).contains(operationId);
     }
 
+    @Test
+    @DirtiesContext
+    void shouldStopRetryingOnceDatabaseBudgetIsDrained() throws Exception {
+        // Given - the shared "database" budget with no retries saved
+        RetryTokenBucket budget = retryBudgetBeanPostProcessor.getInterceptor()
+                .budget(DatabaseService.class.getMethod("saveData", String.class))
+                .bucket();
+
+        // When - calling until one fails, which saveData does at random
+        Throwable failure = null;
+        for (int i = 0; i < 100 && failure == null; i++) {
+            while (budget.tryRetry()) {
+                // drain what the successful calls saved up
+            }
+            try {
+                databaseService.saveData("budget-test");
+            } catch (RuntimeException ex) {
+                failure = ex;
+            }
+        }
+
+        // Then - the failure is not retried
+        assertThat(failure)
+                .isInstanceOf(RetryBudgetExhaustedException.class)
+                .hasCauseInstanceOf(DatabaseService.DatabaseException.class);
+    }
+
     @Test
     void shouldResetCounters() {
         // Given - make a call to increment counters
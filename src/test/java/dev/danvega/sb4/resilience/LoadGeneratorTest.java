@@ -0,0 +1,99 @@
+package dev.danvega.sb4.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LoadGeneratorTest {
+
+    @Mock
+    private DatabaseService databaseService;
+
+    @InjectMocks
+    private LoadGenerator loadGenerator;
+
+    @Test
+    void closedLoopShouldCountSuccessesAndFailuresByType() throws InterruptedException {
+        when(databaseService.simpleOperation("load-test"))
+                .thenReturn("ok")
+                .thenThrow(new DatabaseService.DatabaseException("simulated"));
+
+        LoadGenerator.Report report = loadGenerator.run(LoadGenerator.Operation.SIMPLE, LoadGenerator.Mode.CLOSED,
+                Duration.ofMillis(200), 1, 0);
+
+        assertThat(report.successes()).isEqualTo(1);
+        assertThat(report.failures()).isEqualTo(report.requests() - 1).isPositive();
+        assertThat(report.failuresByType()).containsOnlyKeys("DatabaseException");
+        assertThat(report.throughputPerSecond()).isPositive();
+        assertThat(report.latencyMillis().max()).isGreaterThanOrEqualTo(report.latencyMillis().p50());
+    }
+
+    @Test
+    void openLoopShouldStartCallsAtArrivalRate() throws InterruptedException {
+        when(databaseService.simpleOperation("load-test")).thenReturn("ok");
+
+        LoadGenerator.Report report = loadGenerator.run(LoadGenerator.Operation.SIMPLE, LoadGenerator.Mode.OPEN,
+                Duration.ofMillis(500), 0, 100);
+
+        assertThat(report.requests()).isEqualTo(50);
+        assertThat(report.successes()).isEqualTo(50);
+        assertThat(report.failures()).isZero();
+        assertThat(report.elapsedSeconds()).isCloseTo(0.5, within(0.05));
+        assertThat(report.throughputPerSecond()).isCloseTo(100.0, within(10.0));
+    }
+
+    @Test
+    void openLoopShouldReportDrainSeparately() throws InterruptedException {
+        when(databaseService.simpleOperation("load-test")).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return "ok";
+        });
+
+        LoadGenerator.Report report = loadGenerator.run(LoadGenerator.Operation.SIMPLE, LoadGenerator.Mode.OPEN,
+                Duration.ofMillis(200), 0, 50);
+
+        assertThat(report.requests()).isEqualTo(10);
+        assertThat(report.elapsedSeconds()).isCloseTo(0.2, within(0.05));
+        assertThat(report.drainSeconds()).isGreaterThanOrEqualTo(0.2);
+        assertThat(report.throughputPerSecond()).isCloseTo(50.0, within(10.0));
+    }
+
+    @Test
+    void shouldReportCauseOfFailedFutures() throws InterruptedException {
+        when(databaseService.fetchDataAsync("load-test"))
+                .thenReturn(CompletableFuture.failedFuture(new RetryBudgetExhaustedException("database", null)));
+
+        LoadGenerator.Report report = loadGenerator.run(LoadGenerator.Operation.FETCH_ASYNC, LoadGenerator.Mode.OPEN,
+                Duration.ofMillis(100), 0, 50);
+
+        assertThat(report.failuresByType()).containsOnlyKeys("RetryBudgetExhaustedException");
+    }
+
+    @Test
+    void shouldRejectLoadOutsideLimits() {
+        assertThatThrownBy(() -> loadGenerator.run(LoadGenerator.Operation.SIMPLE, LoadGenerator.Mode.CLOSED,
+                Duration.ofSeconds(1), 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> loadGenerator.run(LoadGenerator.Operation.SIMPLE, LoadGenerator.Mode.OPEN,
+                Duration.ofSeconds(1), 0, 20_000)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> loadGenerator.run(LoadGenerator.Operation.SIMPLE, LoadGenerator.Mode.OPEN,
+                Duration.ofHours(1), 0, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldParseRequestParameters() {
+        assertThat(LoadGenerator.operation("fetch-async")).isEqualTo(LoadGenerator.Operation.FETCH_ASYNC);
+        assertThat(LoadGenerator.mode(" Open ")).isEqualTo(LoadGenerator.Mode.OPEN);
+        assertThatThrownBy(() -> LoadGenerator.operation("drop-tables")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,134 @@
+package dev.danvega.sb4.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryBudgetInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RetryBudgetInterceptor interceptor;
+    private FlakyService target;
+    private FlakyService service;
+
+    @BeforeEach
+    void setUp() {
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        interceptor = new RetryBudgetInterceptor(beanFactory.getBeanProvider(MeterRegistry.class));
+
+        target = new FlakyService();
+        var factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(interceptor.callInterceptor());
+        factory.addAdvice(retry(3));
+        factory.addAdvice(interceptor);
+        service = (FlakyService) factory.getProxy();
+    }
+
+    @Test
+    void shouldRetryWhileBudgetLasts() {
+        target.failures.set(100);
+
+        assertThatThrownBy(service::call).isInstanceOf(DatabaseService.DatabaseException.class);
+        assertThat(target.attempts).hasValue(3);
+
+        assertThatThrownBy(service::call)
+                .isInstanceOf(RetryBudgetExhaustedException.class)
+                .hasCauseInstanceOf(DatabaseService.DatabaseException.class)
+                .hasMessageContaining("'flaky'");
+        assertThat(target.attempts).hasValue(4);
+
+        assertThat(retries("allowed")).isEqualTo(2.0);
+        assertThat(retries("rejected")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("resilience.retry.budget.tokens").tag("budget", "flaky").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldEarnRetriesBackWithSuccesses() {
+        target.failures.set(3);
+        assertThatThrownBy(service::call).isInstanceOf(DatabaseService.DatabaseException.class);
+
+        service.call();
+        service.call();
+        service.call();
+        service.call();
+
+        target.failures.set(1);
+        assertThat(service.call()).isEqualTo("ok");
+        assertThat(retries("allowed")).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldNotSpendBudgetOnFirstAttempts() {
+        for (int i = 0; i < 10; i++) {
+            service.call();
+        }
+
+        assertThat(retries("allowed")).isZero();
+        assertThat(meterRegistry.get("resilience.retry.budget.tokens").tag("budget", "flaky").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldRejectSharedBudgetWithDifferentSettings() throws NoSuchMethodException {
+        interceptor.budget(FlakyService.class.getMethod("call"));
+
+        assertThatThrownBy(() -> interceptor.budget(FlakyService.class.getMethod("other")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("different settings");
+    }
+
+    private double retries(String outcome) {
+        return meterRegistry.get("resilience.retry.budget.retries").tag("budget", "flaky").tag("outcome", outcome)
+                .counter().count();
+    }
+
+    /**
+     * Stands in for the {@code @Retryable} interceptor between the two budget advisors.
+     */
+    private static MethodInterceptor retry(int maxAttempts) {
+        return invocation -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return ((ProxyMethodInvocation) invocation).invocableClone().proceed();
+                } catch (RetryBudgetExhaustedException ex) {
+                    throw ex;
+                } catch (RuntimeException ex) {
+                    if (attempt == maxAttempts) {
+                        throw ex;
+                    }
+                }
+            }
+        };
+    }
+
+    static class FlakyService {
+
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        @RetryBudget(value = "flaky", ratio = 0.5, maxTokens = 2)
+        public String call() {
+            attempts.incrementAndGet();
+            if (failures.getAndDecrement() > 0) {
+                throw new DatabaseService.DatabaseException("simulated failure");
+            }
+            return "ok";
+        }
+
+        @RetryBudget(value = "flaky", ratio = 0.1, maxTokens = 2)
+        public String other() {
+            return "ok";
+        }
+    }
+}